@@ -0,0 +1,155 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Small closed-loop HTTP load generator, no dependencies.
+Each of <concurrency> clients sends a request, waits for the answer and sends the next one.
+
+Run with the single-file launcher (JDK 11+):
+    java bench/LoadTest.java --url http://localhost:8080/api/students --concurrency 500 --duration 30 --token <jwt>
+
+Options:
+    --url          target URL (required)
+    --concurrency  number of concurrent clients (default 100)
+    --duration     seconds to run (default 30)
+    --token        bearer token to send
+    --method       GET or POST (default GET)
+    --body         JSON body for POST
+
+Prints throughput, latency percentiles and error count. On JDK 21 the clients
+run on virtual threads, so 10k+ concurrent clients are fine.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = require(options, "url");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        String token = options.get("token");
+        String method = options.getOrDefault("method", "GET");
+        String body = options.getOrDefault("body", "");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = "POST".equalsIgnoreCase(method)
+                ? builder.POST(HttpRequest.BodyPublishers.ofString(body)).build()
+                : builder.GET().build();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<long[]> latenciesPerClient = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+
+        ExecutorService clients = newClientExecutor(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    recorder.record(System.nanoTime() - start);
+                }
+                latenciesPerClient.add(recorder.toArray());
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(durationSeconds + 120L, TimeUnit.SECONDS);
+
+        report(url, concurrency, durationSeconds, latenciesPerClient, errors.get());
+    }
+
+    // Virtual threads when the JDK has them (21+), a platform thread per client otherwise
+    private static ExecutorService newClientExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+    }
+
+    private static void report(String url, int concurrency, int durationSeconds, List<long[]> perClient, long errors) {
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length == 0) {
+            System.out.println("No requests completed");
+            return;
+        }
+
+        System.out.printf("%s  concurrency=%d  duration=%ds%n", url, concurrency, durationSeconds);
+        System.out.printf("requests=%d  errors=%d  throughput=%.1f req/s%n",
+                all.length, errors, all.length / (double) durationSeconds);
+        System.out.printf("latency ms  p50=%.1f  p90=%.1f  p99=%.1f  max=%.1f%n",
+                millis(percentile(all, 50)), millis(percentile(all, 90)),
+                millis(percentile(all, 99)), millis(all[all.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+
+    // Growable array of latencies, one per client so recording doesn't contend
+    private static class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Compares POST /api/auth/login latency (p50/p90/p99) between an older
+# revision and the current tree, e.g. before/after the single-lookup login.
+#
+# Needs MongoDB on localhost:27017. The older revision is built from a
+# temporary git worktree under target/.
+#
+# Usage: bench/compare-login.sh [git-ref-before] [concurrency] [duration-seconds]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+BEFORE_REF=${1:-HEAD~1}
+CONCURRENCY=${2:-50}
+DURATION=${3:-30}
+PORT=${PORT:-8080}
+BASE="http://localhost:$PORT"
+CREDENTIALS='{"username":"bench-login","password":"bench-password","email":"bench-login@example.com"}'
+
+# Build both versions
+WORKTREE=target/bench-login-before
+rm -rf "$WORKTREE"
+git worktree prune
+git worktree add --detach "$WORKTREE" "$BEFORE_REF" > /dev/null
+(cd "$WORKTREE/backend" && sh ./mvnw -q -DskipTests package)
+BEFORE_JAR=$(ls "$WORKTREE"/backend/target/backend-*.jar | head -1)
+
+sh ./mvnw -q -DskipTests package
+AFTER_JAR=$(ls target/backend-*.jar | head -1)
+
+run() {
+    local name=$1
+    local jar=$2
+    local label=$3
+    # Large bcrypt queue, so the comparison measures latency rather than load shedding
+    java -jar "$jar" --server.port="$PORT" --security.bcrypt.queue-capacity=10000 \
+        > "target/bench-login-$name.log" 2>&1 &
+    local pid=$!
+
+    # Wait until the server answers anything
+    until curl -s -o /dev/null "$BASE/"; do sleep 1; done
+
+    # Make sure the user exists (fails harmlessly when it already does)
+    curl -s -o /dev/null -X POST -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE/api/auth/register"
+
+    echo "=== $label"
+    java bench/LoadTest.java --url "$BASE/api/auth/login" --method POST --body "$CREDENTIALS" \
+        --concurrency "$CONCURRENCY" --duration "$DURATION"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+run before "$BEFORE_JAR" "before ($BEFORE_REF)"
+run after "$AFTER_JAR" "after (working tree)"
+
+git worktree remove --force "$WORKTREE"
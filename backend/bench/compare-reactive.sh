@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Side-by-side load test of the MVC and reactive chat poll endpoints:
+#   GET /api/chat/poll            (blocking repositories)
+#   GET /api/reactive/chat/poll   (reactive driver, streamed NDJSON)
+# Reports throughput/latency from LoadTest and the server's memory after each run.
+#
+# Needs MongoDB on localhost:27017. Use JDK 21 so the load generator can run
+# 10k clients on virtual threads.
+#
+# Usage: bench/compare-reactive.sh [concurrency] [duration-seconds]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-10000}
+DURATION=${2:-60}
+PORT=${PORT:-8080}
+BASE="http://localhost:$PORT"
+
+sh ./mvnw -q -DskipTests package
+JAR=$(ls target/backend-*.jar | head -1)
+
+java -jar "$JAR" --server.port="$PORT" --spring.profiles.active=reactive \
+    --server.tomcat.max-connections=20000 > target/bench-reactive.log 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+# Wait until the server answers anything
+until curl -s -o /dev/null "$BASE/"; do sleep 1; done
+
+CREDENTIALS='{"username":"bench","password":"bench-password","email":"bench@example.com"}'
+RESPONSE=$(curl -s -X POST -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE/api/auth/register")
+if ! grep -q '"token"' <<< "$RESPONSE"; then
+    RESPONSE=$(curl -s -X POST -H 'Content-Type: application/json' -d "$CREDENTIALS" "$BASE/api/auth/login")
+fi
+TOKEN=$(sed -n 's/.*"token":"\([^"]*\)".*/\1/p' <<< "$RESPONSE")
+SINCE=$(date -u +%Y-%m-%dT%H:%M:%S)
+
+memory() {
+    echo "server RSS: $(( $(ps -o rss= -p "$PID") / 1024 )) MB"
+    jcmd "$PID" GC.heap_info | grep -E "garbage-first heap|total" | head -1
+}
+
+for path in /api/chat/poll /api/reactive/chat/poll; do
+    echo "=== $path"
+    java bench/LoadTest.java --url "$BASE$path?timestamp=$SINCE" \
+        --concurrency "$CONCURRENCY" --duration "$DURATION" --token "$TOKEN"
+    memory
+done
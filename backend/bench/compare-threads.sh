@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Compares platform vs virtual request threads at high concurrency on
+# GET /api/chat/poll and GET /api/students.
+#
+# Needs MongoDB on localhost:27017 and a JDK 21 runtime (on 17 the virtual
+# thread setting is ignored and both runs use the Tomcat pool).
+#
+# Usage: bench/compare-threads.sh [concurrency] [duration-seconds]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-2000}
+DURATION=${2:-30}
+PORT=${PORT:-8080}
+BASE="http://localhost:$PORT"
+
+sh ./mvnw -q -DskipTests package
+JAR=$(ls target/backend-*.jar | head -1)
+
+get_token() {
+    local credentials='{"username":"bench","password":"bench-password","email":"bench@example.com"}'
+    local response
+    response=$(curl -s -X POST -H 'Content-Type: application/json' -d "$credentials" "$BASE/api/auth/register")
+    if ! grep -q '"token"' <<< "$response"; then
+        # Already registered by an earlier run
+        response=$(curl -s -X POST -H 'Content-Type: application/json' -d "$credentials" "$BASE/api/auth/login")
+    fi
+    sed -n 's/.*"token":"\([^"]*\)".*/\1/p' <<< "$response"
+}
+
+run() {
+    local virtual=$1
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+        > "target/bench-virtual-$virtual.log" 2>&1 &
+    local pid=$!
+
+    # Wait until the server answers anything
+    until curl -s -o /dev/null "$BASE/"; do sleep 1; done
+
+    local token
+    token=$(get_token)
+    local since
+    since=$(date -u +%Y-%m-%dT%H:%M:%S)
+
+    echo "=== spring.threads.virtual.enabled=$virtual"
+    java bench/LoadTest.java --url "$BASE/api/chat/poll?timestamp=$since" \
+        --concurrency "$CONCURRENCY" --duration "$DURATION" --token "$token"
+    java bench/LoadTest.java --url "$BASE/api/students" \
+        --concurrency "$CONCURRENCY" --duration "$DURATION" --token "$token"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+run false
+run true
@@ -2,8 +2,12 @@ package com.example.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling   // Periodic jobs, e.g. syncing the token revocation list
+@EnableCaching      // @Cacheable lookups, e.g. students (caches are set up in application.properties)
 public class BackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,18 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoConfig {
+
+    // With virtual threads the request pool no longer limits concurrent queries,
+    // the driver's connection pool does, so its size is configurable
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${chat.mongo.max-pool-size:100}") int maxPoolSize) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool.maxSize(maxPoolSize));
+    }
+}
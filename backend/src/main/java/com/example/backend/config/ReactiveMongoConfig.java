@@ -0,0 +1,13 @@
+package com.example.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+// Reactive repositories are only created with the "reactive" profile, the rest of
+// the reactive Mongo auto-configuration is excluded without it (see application.properties)
+@Configuration
+@Profile("reactive")
+@EnableReactiveMongoRepositories(basePackages = "com.example.backend.repository.reactive")
+public class ReactiveMongoConfig {
+}
@@ -1,11 +1,23 @@
 package com.example.backend.config;
 
+import com.example.backend.security.CurrentUserArgumentResolver;
+import com.example.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    private final UserService userService;
+
+    @Autowired
+    public WebConfig(UserService userService) {
+        this.userService = userService;
+    }
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -16,4 +28,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true);    // Allows setting cookies if necessary later
     }
 
+    // Lets controllers take the current user's id as a @CurrentUser parameter
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(userService));
+    }
+
 }
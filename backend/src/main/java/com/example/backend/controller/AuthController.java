@@ -2,18 +2,27 @@ package com.example.backend.controller;
 
 import com.example.backend.dto.AuthenticationResponse;
 import com.example.backend.dto.LoginRequest;
+import com.example.backend.dto.RefreshRequest;
 import com.example.backend.dto.RegisterRequest;
+import com.example.backend.exception.TooManyRequestsException;
 import com.example.backend.model.User;
 import com.example.backend.security.JwtUtil;
-import com.example.backend.service.UserDetailsServiceImpl;
+import com.example.backend.security.UserPrincipal;
+import com.example.backend.service.RefreshTokenService;
+import com.example.backend.service.TokenRevocationService;
 import com.example.backend.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,18 +32,21 @@ public class AuthController {
     private final UserService userService;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService revocationService;
 
     @Autowired
     public AuthController(
             UserService userService,
             JwtUtil jwtUtil,
             AuthenticationManager authenticationManager,
-            UserDetailsServiceImpl userDetailsService) {
+            RefreshTokenService refreshTokenService,
+            TokenRevocationService revocationService) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationService = revocationService;
     }
 
     @PostMapping("/register")
@@ -49,17 +61,20 @@ public class AuthController {
             // Register user
             User savedUser = userService.registerUser(user);
 
-            // Generate JWT token
-            UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getUsername());
-            String token = jwtUtil.generateToken(userDetails);
+            // Generate JWT token (straight from the saved user, no need to load it again)
+            String token = jwtUtil.generateToken(new UserPrincipal(savedUser), savedUser.getId());
 
             // We now return an authentication response containing token and user info
             // Instead of UserResponse DTO
             return ResponseEntity.ok(new AuthenticationResponse(
                     token,
                     savedUser.getId(),
-                    savedUser.getUsername()
+                    savedUser.getUsername(),
+                    refreshTokenService.issue(savedUser.getId())
             ));
+        } catch (TooManyRequestsException e) {
+            // Password hashing is overloaded, not a problem with the request (429)
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -69,24 +84,79 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<AuthenticationResponse> login(@RequestBody LoginRequest loginRequest) {
-        // Authenticate with Spring Security
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
-
-        // If authentication succeeds (no exception thrown), generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-        User user = userService.findByUsername(loginRequest.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
+        // Authenticate with Spring Security (the only user lookup of the login)
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (AuthenticationException e) {
+            // Wrong username or password
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // If authentication succeeds, the principal already carries the user, generate token
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        User user = principal.getUser();
+        String token = jwtUtil.generateToken(principal, user.getId());
 
         // Return token and user info
         return ResponseEntity.ok(new AuthenticationResponse(
                 token,
                 user.getId(),
-                user.getUsername()
+                user.getUsername(),
+                refreshTokenService.issue(user.getId())
         ));
     }
+
+    // Trade a refresh token for a new access token. The refresh token is used up,
+    // a new one is returned with the access token.
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@RequestBody RefreshRequest refreshRequest) {
+        String userId = refreshTokenService.redeem(refreshRequest.getRefreshToken());
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // Load the user again, so roles are current and deleted users can't refresh
+        User user;
+        try {
+            user = userService.findById(userId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String token = jwtUtil.generateToken(new UserPrincipal(user), user.getId());
+
+        return ResponseEntity.ok(new AuthenticationResponse(
+                token,
+                user.getId(),
+                user.getUsername(),
+                refreshTokenService.issue(user.getId())
+        ));
+    }
+
+    // End the session: the refresh token is deleted and the current access token is revoked
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequest refreshRequest) {
+
+        if (refreshRequest != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.parseClaims(authHeader.substring(7));
+                revocationService.revoke(claims.getId(), claims.getExpiration());
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid or expired, nothing to revoke
+            }
+        }
+
+        return ResponseEntity.noContent().build();
+    }
 }
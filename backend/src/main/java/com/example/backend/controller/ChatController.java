@@ -1,28 +1,38 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.BatchMessageResult;
 import com.example.backend.dto.MessageRequest;
 import com.example.backend.dto.MessageResponse;
+import com.example.backend.dto.UnreadCountsResponse;
 import com.example.backend.dto.UserResponse;
 import com.example.backend.model.Message;
 import com.example.backend.model.User;
+import com.example.backend.security.CurrentUser;
+import com.example.backend.service.ChatEventHub;
 import com.example.backend.service.ChatService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
 /*
     Chat Endpoints
 
-    Authentication is added to identify the specific
-    user that is making the request, which is not the same situation
+    The current user's id (@CurrentUser, taken from the JWT) identifies
+    the specific user that is making the request, which is not the same situation
     as the StudentController at the moment. If access to students will
     be restricted depending on user authentication, those endpoints will
     need to change.
@@ -33,55 +43,100 @@ import java.util.stream.Collectors;
 public class ChatController {
     private final ChatService chatService;
     private final UserService userService;
+    private final ChatEventHub chatEventHub;
+
+    // Largest page a client can ask for (conversation messages, chat list)
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Upper bound for how long a long-poll request is parked
+    @Value("${chat.poll.max-wait-seconds:30}")
+    private long maxWaitSeconds = 30;
 
     @Autowired
-    public ChatController(ChatService chatService, UserService userService) {
+    public ChatController(ChatService chatService, UserService userService, ChatEventHub chatEventHub) {
         this.chatService = chatService;
         this.userService = userService;
+        this.chatEventHub = chatEventHub;
     }
 
     // Send a message to another user
     @PostMapping("/send")
     public ResponseEntity<MessageResponse> sendMessage(
-            Authentication authentication,
+            @CurrentUser String currentUserId,
             @RequestBody MessageRequest request) {
 
-        // Get current user ID from JWT authentication
-        String currentUsername = authentication.getName();
-        User currentUser = userService.findByUsername(currentUsername);
-
         // Send message
         Message message = chatService.sendMessage(
-                currentUser.getId(),
+                currentUserId,
                 request.getReceiverId(),
                 request.getContent()
         );
 
         // Convert response to DTO
         MessageResponse response = convertToDto(message);
+
+        // 202 when the message is only queued so far (write-behind mode)
+        if (chatService.acknowledgesOnEnqueue()) {
+            return ResponseEntity.accepted().body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
-    // Get conversation with another user
+    // Send many messages at once (e.g. notification bots).
+    // Every item gets a result in request order, a bad receiver only fails its own item.
+    @PostMapping("/send/batch")
+    public ResponseEntity<?> sendMessages(
+            @CurrentUser String currentUserId,
+            @RequestBody List<MessageRequest> requests) {
+
+        List<ChatService.SendOutcome> outcomes;
+        try {
+            outcomes = chatService.sendMessages(currentUserId, requests);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        // Convert the sent messages together (one username lookup)
+        List<Message> sentMessages = outcomes.stream()
+                .map(ChatService.SendOutcome::getMessage)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        List<MessageResponse> sentResponses = convertToDtos(sentMessages);
+
+        List<BatchMessageResult> response = new ArrayList<>();
+        int sentIndex = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            ChatService.SendOutcome outcome = outcomes.get(i);
+            if (outcome.getMessage() != null) {
+                response.add(new BatchMessageResult(i, true, null, sentResponses.get(sentIndex++)));
+            } else {
+                response.add(new BatchMessageResult(i, false, outcome.getError(), null));
+            }
+        }
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Get conversation with another user, one page at a time (latest page by default).
+    // Pass the id of the oldest loaded message as 'before' to load older messages,
+    // or the newest one as 'after' to load newer ones.
     @GetMapping("/conversation/{userId}")
     public ResponseEntity<List<MessageResponse>> getConversation(
-            Authentication authentication,
-            @PathVariable String userId) {
-
-        // Get current user ID from JWT authentication
-        String currentUsername = authentication.getName();
-        User currentUser = userService.findByUsername(currentUsername);
+            @CurrentUser String currentUserId,
+            @PathVariable String userId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
 
         // Mark messages from other user as read
-        chatService.markAllAsRead(userId, currentUser.getId());
+        chatService.markAllAsRead(userId, currentUserId);
 
-        // Get conversation
-        List<Message> messages = chatService.getConversation(currentUser.getId(), userId);
+        // Get conversation page
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Message> messages = chatService.getConversation(currentUserId, userId, before, after, pageSize);
 
         // Convert to response DTOs
-        List<MessageResponse> response = messages.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<MessageResponse> response = convertToDtos(messages);
 
         return ResponseEntity.ok(response);
     }
@@ -103,47 +158,47 @@ public class ChatController {
     // Get unread messages
     @GetMapping("/unread")
     public ResponseEntity<List<MessageResponse>> getUnreadMessages(
-            Authentication authentication) {
-
-        // Get current ID from JWT authentication
-        String currentUsername = authentication.getName();
-        User currentUser = userService.findByUsername(currentUsername);
+            @CurrentUser String currentUserId) {
 
         // Get unread messages
-        List<Message> messages = chatService.getUnreadMessages(currentUser.getId());
+        List<Message> messages = chatService.getUnreadMessages(currentUserId);
 
         // Convert to response DTOs
-        List<MessageResponse> response = messages.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<MessageResponse> response = convertToDtos(messages);
 
         return ResponseEntity.ok(response);
     }
 
-    // Get list of users that current user has chatted with
+    // Get unread counts per chat partner and in total, for badges (no message content loaded)
+    @GetMapping("/unread/counts")
+    public ResponseEntity<UnreadCountsResponse> getUnreadCounts(
+            @CurrentUser String currentUserId) {
+
+        // Read the counters kept on the conversation summaries
+        Map<String, Long> byUser = chatService.getUnreadCounts(currentUserId);
+        long total = byUser.values().stream().mapToLong(Long::longValue).sum();
+
+        return ResponseEntity.ok(new UnreadCountsResponse(total, byUser));
+    }
+
+    // Get list of users that current user has chatted with, most recent conversation first
     // TODO: Maybe move this to UserController instead?
     @GetMapping("/users")
     public ResponseEntity<List<UserResponse>> getChatUser(
-            Authentication authentication) {
-        // Get current user ID from JWT authentication
-        String currentUsername = authentication.getName();
-        User currentUser = userService.findByUsername(currentUsername);
-
+            @CurrentUser String currentUserId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         // Get list of users that chatted with the selected user
-        List<String> userIds = chatService.getChatUsersList(currentUser.getId());
-
-        // Convert IDs to User objects
-        List<User> users = new ArrayList<>();
-        for (String userId : userIds) {
-            try {
-                users.add(userService.findById(userId));
-            } catch (Exception e) {
-                // Skip users that may have been deleted
-            }
-        }
+        List<String> userIds = chatService.getChatUsersList(
+                currentUserId, Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
 
-        // Then to dto list
-        List<UserResponse> response = users.stream()
+        // Resolve all of them in one query
+        Map<String, User> usersById = userService.findAllByIds(userIds);
+
+        // Then to dto list, keeping the chat order and skipping users that may have been deleted
+        List<UserResponse> response = userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
 
@@ -153,31 +208,82 @@ public class ChatController {
     // Poll for new sent or received messages
     @GetMapping("/poll")
     public ResponseEntity<List<MessageResponse>> pollNewMessages(
-            Authentication authentication,
+            @CurrentUser String currentUserId,
             @RequestParam String timestamp) {
 
-        // Get current user ID from JWT authentication
-        String currentUsername = authentication.getName();
-        User currentUser = userService.findByUsername(currentUsername);
-
         // Parse timestamp
         LocalDateTime since = LocalDateTime.parse(timestamp);
 
         // Get new messages
-        List<Message> newMessages = chatService.getNewMessages(currentUser.getId(), since);
+        List<Message> newMessages = chatService.getNewMessages(currentUserId, since);
 
         // Convert response into DTOs
-        List<MessageResponse> response = newMessages.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<MessageResponse> response = convertToDtos(newMessages);
 
         return ResponseEntity.ok(response);
     }
 
+    // Long-poll for new messages: used instead of the plain poll when a wait (in seconds) is given.
+    // The request is parked without touching the database until a message for this user is sent
+    // or the wait expires (empty list). Clients should pass the newest message timestamp they
+    // have seen as the next timestamp, so nothing sent between two polls is lost.
+    @GetMapping(value = "/poll", params = "wait")
+    public DeferredResult<ResponseEntity<List<MessageResponse>>> longPollNewMessages(
+            @CurrentUser String currentUserId,
+            @RequestParam String timestamp,
+            @RequestParam long wait) {
 
+        // Parse timestamp
+        LocalDateTime since = LocalDateTime.parse(timestamp);
+
+        // Parked requests release the Tomcat thread until they are completed
+        long waitSeconds = Math.max(1, Math.min(wait, maxWaitSeconds));
+        DeferredResult<ResponseEntity<List<MessageResponse>>> result =
+                new DeferredResult<>(waitSeconds * 1000, ResponseEntity.ok(List.<MessageResponse>of()));
+
+        // Subscribe before checking for missed messages, otherwise one could slip in between
+        Runnable unsubscribe = chatEventHub.subscribe(currentUserId, event ->
+                result.setResult(ResponseEntity.ok(List.of(event.toResponse()))));
+        result.onCompletion(unsubscribe);
+
+        if (chatEventHub.hasMessagesSince(currentUserId, since)) {
+            // Something may have arrived (or the hub can't tell for an old timestamp), ask the database
+            List<Message> missed = chatService.getNewMessages(currentUserId, since);
+
+            // Answer only when there is something, otherwise keep waiting like any other poll,
+            // so a quiet user doesn't come straight back with the same timestamp
+            if (!missed.isEmpty()) {
+                result.setResult(ResponseEntity.ok(convertToDtos(missed)));
+            }
+        }
 
-    // Helper method to convert Message entity to MessageResponse DTO
+        return result;
+    }
+
+
+
+    // Helper method to convert Message entities to MessageResponse DTOs.
+    // Usernames for all senders/receivers are resolved with a single query.
+    private List<MessageResponse> convertToDtos(List<Message> messages) {
+        Set<String> userIds = new HashSet<>();
+        for (Message message : messages) {
+            userIds.add(message.getSenderId());
+            userIds.add(message.getReceiverId());
+        }
+
+        Map<String, User> usersById = userIds.isEmpty() ? Map.of() : userService.findAllByIds(userIds);
+
+        return messages.stream()
+                .map(message -> convertToDto(message, usersById))
+                .collect(Collectors.toList());
+    }
+
+    // Helper method to convert a single Message entity to MessageResponse DTO
     private MessageResponse convertToDto(Message message) {
+        return convertToDtos(List.of(message)).get(0);
+    }
+
+    private MessageResponse convertToDto(Message message, Map<String, User> usersById) {
         MessageResponse dto = new MessageResponse();
         dto.setId(message.getId());
         dto.setSenderId(message.getSenderId());
@@ -186,14 +292,14 @@ public class ChatController {
         dto.setTimestamp(message.getTimestamp());
         dto.setRead(message.isRead());
 
-        // Add usernames for convenience
-        try {
-            User sender = userService.findById(message.getSenderId());
-            User receiver = userService.findById(message.getReceiverId());
+        // Add usernames for convenience (left empty if a user was deleted)
+        User sender = usersById.get(message.getSenderId());
+        User receiver = usersById.get(message.getReceiverId());
+        if (sender != null) {
             dto.setSenderUsername(sender.getUsername());
+        }
+        if (receiver != null) {
             dto.setReceiverUsername(receiver.getUsername());
-        } catch (Exception e) {
-            // TODO: Handle case where a user might be deleted
         }
 
         return dto;
@@ -0,0 +1,48 @@
+package com.example.backend.controller;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+Sparse fieldsets for list endpoints: ?fields=name,courses asks for just those
+fields (plus id, which is always returned). The same field set is passed down
+as a Mongo projection, so unrequested fields are never read from the database.
+ */
+final class FieldSelection {
+    private FieldSelection() {
+    }
+
+    // Requested fields in request order, or null when the parameter is absent (all fields).
+    // Throws IllegalArgumentException for fields that aren't in the allowed set.
+    static Set<String> parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : Arrays.stream(fields.split(",")).map(String::trim).toList()) {
+            if (field.isEmpty() || field.equals("id")) {
+                continue;
+            }
+            if (!allowed.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    // Only the id and the selected fields of a DTO, for serializing a partial response
+    static <T> Map<String, Object> select(T dto, Set<String> fields, Map<String, Function<T, Object>> getters) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", getters.get("id").apply(dto));
+        for (String field : fields) {
+            values.put(field, getters.get(field).apply(dto));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.MessageResponse;
+import com.example.backend.model.Message;
+import com.example.backend.model.User;
+import com.example.backend.security.AuthenticatedUser;
+import com.example.backend.service.ReactiveChatService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+    Reactive variant of the chat read endpoints (only with the "reactive" profile)
+
+    Same data as ChatController, but each message is written to the response
+    as newline-delimited JSON as soon as it is read, so large conversations
+    are never held in memory as a whole. Sending and marking as read stay on
+    /api/chat.
+ */
+
+@RestController
+@RequestMapping("/api/reactive/chat")
+@Profile("reactive")
+public class ReactiveChatController {
+    private final ReactiveChatService chatService;
+
+    @Autowired
+    public ReactiveChatController(ReactiveChatService chatService) {
+        this.chatService = chatService;
+    }
+
+    // Stream conversation with another user
+    @GetMapping(value = "/conversation/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MessageResponse> getConversation(
+            Authentication authentication,
+            @PathVariable String userId) {
+
+        return currentUserId(authentication)
+                .flatMapMany(currentUserId -> chatService.getConversation(currentUserId, userId))
+                .concatMap(usernameResolver());
+    }
+
+    // Stream unread messages
+    @GetMapping(value = "/unread", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MessageResponse> getUnreadMessages(
+            Authentication authentication) {
+
+        return currentUserId(authentication)
+                .flatMapMany(chatService::getUnreadMessages)
+                .concatMap(usernameResolver());
+    }
+
+    // Poll for new sent or received messages
+    @GetMapping(value = "/poll", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MessageResponse> pollNewMessages(
+            Authentication authentication,
+            @RequestParam String timestamp) {
+
+        // Parse timestamp
+        LocalDateTime since = LocalDateTime.parse(timestamp);
+
+        return currentUserId(authentication)
+                .flatMapMany(currentUserId -> chatService.getNewMessages(currentUserId, since))
+                .concatMap(usernameResolver());
+    }
+
+    // Get current user ID from JWT authentication (looked up only for tokens without the id claim)
+    private Mono<String> currentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return Mono.just(user.getId());
+        }
+        return chatService.findByUsername(authentication.getName())
+                .map(User::getId);
+    }
+
+    // Converts messages to DTOs, looking each user up once per response (most messages share the same two users)
+    private Function<Message, Mono<MessageResponse>> usernameResolver() {
+        Map<String, Mono<String>> usernames = new ConcurrentHashMap<>();
+
+        return message -> Mono.zip(
+                usernames.computeIfAbsent(message.getSenderId(), this::username),
+                usernames.computeIfAbsent(message.getReceiverId(), this::username)
+        ).map(names -> convertToDto(message, names.getT1(), names.getT2()));
+    }
+
+    // Username lookup, empty string if the user was deleted (cached so it runs once)
+    private Mono<String> username(String userId) {
+        return chatService.findById(userId)
+                .map(User::getUsername)
+                .defaultIfEmpty("")
+                .cache();
+    }
+
+    // Helper method to convert Message entity to MessageResponse DTO
+    private MessageResponse convertToDto(Message message, String senderUsername, String receiverUsername) {
+        MessageResponse dto = new MessageResponse();
+        dto.setId(message.getId());
+        dto.setSenderId(message.getSenderId());
+        dto.setReceiverId(message.getReceiverId());
+        dto.setContent(message.getContent());
+        dto.setTimestamp(message.getTimestamp());
+        dto.setRead(message.isRead());
+
+        // Left empty if a user was deleted
+        dto.setSenderUsername(senderUsername.isEmpty() ? null : senderUsername);
+        dto.setReceiverUsername(receiverUsername.isEmpty() ? null : receiverUsername);
+
+        return dto;
+    }
+}
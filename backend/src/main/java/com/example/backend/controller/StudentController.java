@@ -1,26 +1,69 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.CreateStudentRequest;
+import com.example.backend.dto.ImportResult;
+import com.example.backend.dto.StudentLookupResult;
 import com.example.backend.dto.StudentResponse;
 import com.example.backend.dto.UpdateStudentRequest;
+import com.example.backend.exception.ConflictException;
 import com.example.backend.model.Student;
+import com.example.backend.repository.StudentFilter;
+import com.example.backend.service.StudentExportService;
+import com.example.backend.service.StudentImportService;
 import com.example.backend.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/students")
 public class StudentController {
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final StudentExportService studentExportService;
+
+    // Largest page (or batch of ids) a client can ask for
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Fields of StudentResponse that can be selected with fields=
+    private static final Map<String, Function<StudentResponse, Object>> RESPONSE_FIELDS = Map.of(
+            "id", StudentResponse::getId,
+            "name", StudentResponse::getName,
+            "courses", StudentResponse::getCourses,
+            "phoneNumber", StudentResponse::getPhoneNumber,
+            "dateOfBirth", StudentResponse::getDateOfBirth,
+            "version", StudentResponse::getVersion);
+
+    // Fields backed by an index, anything else would sort in memory
+    private static final Set<String> SORTABLE_FIELDS = Set.of("name", "dateOfBirth", "id");
 
     @Autowired
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService,
+                             StudentImportService studentImportService,
+                             StudentExportService studentExportService) {
         this.studentService = studentService;
+        this.studentImportService = studentImportService;
+        this.studentExportService = studentExportService;
     }
 
     @PostMapping
@@ -57,51 +100,179 @@ public class StudentController {
 
     }
 
+    // Resolve many ids at once (one query instead of a GET per id). Results come back
+    // in the order of the ids, with found=false for ids that don't exist.
+    @PostMapping("/batch-get")
+    public ResponseEntity<?> getStudentsByIds(@RequestBody List<String> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_PAGE_SIZE + " ids per request");
+        }
+
+        // Duplicates are only looked up once
+        Set<String> uniqueIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, Student> studentsById = studentService.findAllByIds(uniqueIds);
+
+        List<StudentLookupResult> response = ids.stream()
+                .map(id -> {
+                    Student student = studentsById.get(id);
+                    return student == null
+                            ? new StudentLookupResult(id, false, null)
+                            : new StudentLookupResult(id, true, convertToDto(student));
+                })
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(response);
+    }
+
+    // List students one page at a time, optionally filtered.
+    // sort is "field" or "field,asc|desc" (name, dateOfBirth or id), name is a prefix,
+    // bornFrom/bornTo are inclusive ISO dates. The total is only counted (X-Total-Count
+    // header) when includeTotal=true, since it costs an extra query.
+    // fields=name,courses returns only those fields plus the id.
     @GetMapping
-    public ResponseEntity<List<StudentResponse>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornTo,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String fields) {
+
+        Sort order;
+        Set<String> selected;
+        try {
+            order = parseSort(sort);
+            selected = FieldSelection.parse(fields, RESPONSE_FIELDS.keySet());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        StudentFilter filter = new StudentFilter(name, course, bornFrom, bornTo);
+        Pageable pageable = PageRequest.of(
+                Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), order);
 
-        // Convert to list of DTO
-        List<StudentResponse> response = students.stream()
+        List<Student> students = studentService.searchStudents(filter, pageable, selected);
+
+        // Convert to list of DTO, cut down to the selected fields if there are any
+        List<StudentResponse> dtos = students.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
+        Object response = selected == null ? dtos : dtos.stream()
+                .map(dto -> FieldSelection.select(dto, selected, RESPONSE_FIELDS))
+                .collect(Collectors.toList());
 
+        if (includeTotal) {
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(studentService.countStudents(filter)))
+                    .body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
+    // Create many students from an NDJSON upload (one student object per line).
+    // The body is streamed, so large files are fine. Answers with per-row errors.
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportResult> importStudentsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(studentImportService.importNdjson(body));
+    }
+
+    // Same as above for CSV, the first line must be a header (name,courses,phoneNumber,dateOfBirth)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importStudentsCsv(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(studentImportService.importCsv(body));
+        } catch (IllegalArgumentException e) {
+            // Header is unusable, nothing was imported
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Download all students as NDJSON (default) or CSV, written while they are read from the database
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        if (format.equalsIgnoreCase("csv")) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.csv\"")
+                    .body(studentExportService::exportCsv);
+        }
+        if (format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.ndjson\"")
+                    .body(studentExportService::exportNdjson);
+        }
+        return ResponseEntity.badRequest().build();
+    }
+
+    // Replace all fields of a student. One round trip: the student is updated in place,
+    // not loaded first. With a version in the body, a stale edit gets 409 instead of overwriting.
     @PutMapping("/{id}")
     public ResponseEntity<StudentResponse> updateStudent(@PathVariable String id,
                                                          @RequestBody UpdateStudentRequest updateRequest) {
         try {
-            // Verify existence of student with provided id
-            Student existingStudent = studentService.findById(id);
-
-            // Update fields
-            existingStudent.setName(updateRequest.getName());
-            existingStudent.setCourses(updateRequest.getCourses());
-            existingStudent.setPhoneNumber(updateRequest.getPhoneNumber());
-            existingStudent.setDateOfBirth(updateRequest.getDateOfBirth());
+            // Convert DTO to Entity
+            Student student = new Student();
+            student.setId(id);
+            student.setName(updateRequest.getName());
+            student.setCourses(updateRequest.getCourses());
+            student.setPhoneNumber(updateRequest.getPhoneNumber());
+            student.setDateOfBirth(updateRequest.getDateOfBirth());
+            student.setVersion(updateRequest.getVersion());
 
             // Save updated student
-            Student updatedStudent = studentService.editStudent(existingStudent);
+            Student updatedStudent = studentService.editStudent(student);
 
             // Convert to DTO
             StudentResponse response = convertToDto(updatedStudent);
 
             return ResponseEntity.ok(response);
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
+    }
 
+    // Change only the fields present (non-null) in the body, the rest of the student is left alone
+    @PatchMapping("/{id}")
+    public ResponseEntity<StudentResponse> patchStudent(@PathVariable String id,
+                                                        @RequestBody UpdateStudentRequest updateRequest) {
+        Map<String, Object> fields = new HashMap<>();
+        if (updateRequest.getName() != null) {
+            fields.put("name", updateRequest.getName());
+        }
+        if (updateRequest.getCourses() != null) {
+            fields.put("courses", updateRequest.getCourses());
+        }
+        if (updateRequest.getPhoneNumber() != null) {
+            fields.put("phoneNumber", updateRequest.getPhoneNumber());
+        }
+        if (updateRequest.getDateOfBirth() != null) {
+            fields.put("dateOfBirth", updateRequest.getDateOfBirth());
+        }
+        if (fields.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
 
+        try {
+            Student updatedStudent = studentService.updateStudent(id, fields, updateRequest.getVersion());
+            return ResponseEntity.ok(convertToDto(updatedStudent));
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
     }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteStudent(@PathVariable String id) {
         try {
-            // Verify student exists
-            studentService.findById(id);
-
-            // Delete if exists
+            // Single delete, fails if nothing was deleted
             studentService.deleteStudent(id);
 
             return ResponseEntity.noContent().build();
@@ -111,6 +282,25 @@ public class StudentController {
     }
 
 
+    // Helper method to turn "field[,asc|desc]" into a Sort. Ties are broken by id,
+    // so paging through students with the same name doesn't skip or repeat any.
+    private Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Cannot sort by: " + field);
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction: " + parts[1]));
+        }
+
+        Sort order = Sort.by(direction, field);
+        return field.equals("id") ? order : order.and(Sort.by(direction, "id"));
+    }
+
     // Helper method for consistency with other controllers
     private StudentResponse convertToDto(Student student) {
         StudentResponse dto = new StudentResponse();
@@ -119,6 +309,7 @@ public class StudentController {
         dto.setCourses(student.getCourses());
         dto.setPhoneNumber(student.getPhoneNumber());
         dto.setDateOfBirth(student.getDateOfBirth());
+        dto.setVersion(student.getVersion());
 
         return dto;
     }
@@ -1,15 +1,25 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.ImportResult;
 import com.example.backend.dto.UserResponse;
 import com.example.backend.model.User;
+import com.example.backend.service.UserImportService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 // Purpose is simply to retrieve all users so that a user can choose who to chat with
@@ -18,23 +28,55 @@ import java.util.stream.Collectors;
 public class UserController {
 
     UserService userService;
+    UserImportService userImportService;
+
+    // Fields of UserResponse that can be selected with fields=
+    private static final Map<String, Function<UserResponse, Object>> RESPONSE_FIELDS = Map.of(
+            "id", UserResponse::getId,
+            "username", UserResponse::getUsername,
+            "email", UserResponse::getEmail);
+    private static final Set<String> DEFAULT_FIELDS = Set.of("username", "email");
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
+    // fields=username (comma separated) returns only those fields plus the id,
+    // e.g. for a user picker that doesn't need emails
     @GetMapping()
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields) {
+        Set<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, RESPONSE_FIELDS.keySet());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        // Even without fields=, only what UserResponse shows is read from the database
+        List<User> users = userService.getAllUsers(selected != null ? selected : DEFAULT_FIELDS);
 
         List<UserResponse> response = users.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
 
+        if (selected != null) {
+            return ResponseEntity.ok(response.stream()
+                    .map(dto -> FieldSelection.select(dto, selected, RESPONSE_FIELDS))
+                    .collect(Collectors.toList()));
+        }
         return ResponseEntity.ok(response);
     }
 
+    // Admin only: create many users from an NDJSON upload, one {"username", "password", "email"} per line.
+    // The body is streamed, so large files are fine. Answers with per-row errors.
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ImportResult> importUsers(InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(body));
+    }
+
     // Helper method to convert User entity to UserResponse DTO
     private UserResponse convertToDto(User user) {
         UserResponse dto = new UserResponse();
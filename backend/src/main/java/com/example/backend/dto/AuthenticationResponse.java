@@ -11,4 +11,5 @@ public class AuthenticationResponse {
     private String token;
     private String userId;
     private String username;
+    private String refreshToken;    // Exchange at /api/auth/refresh for a new token when it expires
 }
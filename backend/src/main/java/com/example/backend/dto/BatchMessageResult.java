@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one item of POST /api/chat/send/batch, in request order
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchMessageResult {
+    private int index;
+    private boolean sent;
+    private String error;               // Set when sent is false
+    private MessageResponse message;    // Set when sent is true
+}
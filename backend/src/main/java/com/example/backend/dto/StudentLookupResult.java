@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one id of POST /api/students/batch-get, in request order
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentLookupResult {
+    private String id;
+    private boolean found;
+    private StudentResponse student;    // Set when found is true
+}
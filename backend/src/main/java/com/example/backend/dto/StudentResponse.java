@@ -12,4 +12,5 @@ public class StudentResponse {
     private List<String> courses;
     private String phoneNumber;
     private LocalDate dateOfBirth;
+    private Long version;       // Send back when updating, to detect concurrent edits
 }
@@ -5,10 +5,13 @@ import lombok.Data;
 import java.time.LocalDate;
 import java.util.List;
 
+// Body of PUT (all fields replaced) and PATCH (only non-null fields changed).
+// version is optional: when given, the update fails with 409 if the student changed since.
 @Data
 public class UpdateStudentRequest {
     private String name;
     private List<String> courses;
     private String phoneNumber;
     private LocalDate dateOfBirth;
+    private Long version;
 }
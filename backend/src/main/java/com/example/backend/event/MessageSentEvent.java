@@ -0,0 +1,34 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.MessageResponse;
+import com.example.backend.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+Published by ChatService once a message has been saved.
+Usernames are carried along so listeners can build a MessageResponse
+without going back to the database.
+ */
+@Getter
+@AllArgsConstructor
+public class MessageSentEvent {
+    private final Message message;
+    private final String senderUsername;
+    private final String receiverUsername;
+
+    // MessageResponse DTO for this message, usernames included (no lookups)
+    public MessageResponse toResponse() {
+        MessageResponse dto = new MessageResponse();
+        dto.setId(message.getId());
+        dto.setSenderId(message.getSenderId());
+        dto.setReceiverId(message.getReceiverId());
+        dto.setSenderUsername(senderUsername);
+        dto.setReceiverUsername(receiverUsername);
+        dto.setContent(message.getContent());
+        dto.setTimestamp(message.getTimestamp());
+        dto.setRead(message.isRead());
+
+        return dto;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/*
+Summary of the conversation between two users, kept up to date by ChatService
+whenever a message is sent or read. Lets the chat list be read without
+scanning the messages collection.
+ */
+@Data
+@Document(collection = "conversations")
+@CompoundIndex(name = "participant_recent_idx", def = "{'participants': 1, 'lastTimestamp': -1}")
+public class Conversation {
+    // Longest message preview kept on the summary
+    private static final int PREVIEW_LENGTH = 100;
+
+    @Id
+    private String id;  // Both user ids, smaller one first (see keyFor)
+
+    private List<String> participants;
+    private String lastSenderId;
+    private String lastMessagePreview;
+    private LocalDateTime lastTimestamp;
+    private Map<String, Long> unreadCounts; // User id -> unread messages for that user
+
+    // Same key no matter which side sends
+    public static String keyFor(String userId1, String userId2) {
+        return userId1.compareTo(userId2) <= 0
+                ? userId1 + ":" + userId2
+                : userId2 + ":" + userId1;
+    }
+
+    public static String previewOf(String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
+}
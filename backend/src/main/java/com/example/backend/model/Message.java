@@ -2,12 +2,18 @@ package com.example.backend.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "messages")
+@CompoundIndexes({
+        @CompoundIndex(name = "conversation_idx", def = "{'senderId': 1, 'receiverId': 1, '_id': -1}"),   // Conversation pages
+        @CompoundIndex(name = "unread_idx", def = "{'receiverId': 1, 'read': 1, 'senderId': 1}")           // Unread lookups and mark-as-read
+})
 public class Message {
     @Id
     private String id;
@@ -0,0 +1,29 @@
+package com.example.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/*
+Long-lived token used to get new (short-lived) access tokens.
+Only a SHA-256 hash of the token is stored, a database leak doesn't expose usable tokens.
+Each one is single use: refreshing deletes it and issues a new one.
+ */
+@Data
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String tokenHash;
+
+    private String userId;
+
+    // Mongo removes the document once this time has passed (TTL index)
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/*
+Access token that was revoked (e.g. on logout) before it expired, identified by its jti.
+Only needs to be kept until the token would have expired anyway.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String jti;
+
+    // Mongo removes the document once the token has expired (TTL index)
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
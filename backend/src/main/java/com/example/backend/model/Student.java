@@ -2,6 +2,9 @@ package com.example.backend.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -9,6 +12,16 @@ import java.util.List;
 
 @Data
 @Document(collection = "students")
+@CompoundIndexes({
+        // Every listing sorts by its field and then _id (stable pages), so _id ends each index
+        // and the sort is read straight off it. New names, the old single-field indexes can be dropped.
+        // Name lookups, prefix filter and sorting by name
+        @CompoundIndex(name = "name_id_idx", def = "{'name': 1, '_id': 1}"),
+        // Course filter (multikey, one entry per course), results sorted by name
+        @CompoundIndex(name = "course_name_id_idx", def = "{'courses': 1, 'name': 1, '_id': 1}"),
+        // Date of birth range filter and sort
+        @CompoundIndex(name = "dob_id_idx", def = "{'dateOfBirth': 1, '_id': 1}")
+})
 public class Student {
     @Id
     private String id;
@@ -16,4 +29,9 @@ public class Student {
     private List<String> courses;
     private String phoneNumber;
     private LocalDate dateOfBirth;
+
+    // Bumped on every update, a write based on an older version is rejected.
+    // Null for students stored before versioning (and bulk imports) until their first update.
+    @Version
+    private Long version;
 }
@@ -4,6 +4,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.List;
+
 
 @Data
 @Document(collection = "users")
@@ -14,5 +16,6 @@ public class User {
     private String username;
     private String password;
     private String email;
+    private List<String> roles;     // e.g. ["USER", "ADMIN"], null means a plain user (set ADMIN in the database)
 
 }
@@ -0,0 +1,12 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Conversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ConversationRepository extends MongoRepository<Conversation, String>, ConversationRepositoryCustom {
+    // Conversations a user takes part in, most recent first
+    List<Conversation> findByParticipantsOrderByLastTimestampDesc(String userId, Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Message;
+
+import java.util.List;
+import java.util.Map;
+
+// Incremental updates of conversation summaries, implemented with MongoTemplate
+public interface ConversationRepositoryCustom {
+    // Upsert the summary for a new message and count it as unread for the receiver
+    void recordMessage(Message message);
+
+    // Same as recordMessage for many messages, sent as one bulk write
+    void recordMessages(List<Message> messages);
+
+    // Take messages the reader has just read off their unread count
+    void markRead(String readerId, String partnerId, long readCount);
+
+    // Unread counts for a user keyed by partner id, only partners with unread messages
+    Map<String, Long> findUnreadCounts(String userId);
+}
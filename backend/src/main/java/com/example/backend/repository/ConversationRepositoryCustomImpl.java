@@ -0,0 +1,103 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Conversation;
+import com.example.backend.model.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConversationRepositoryCustomImpl implements ConversationRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ConversationRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Two writes per message: counters and lastTimestamp ($max) first, then the sender and preview,
+    // only if this message is still the newest. So an older message written late (batch, write-behind
+    // or a concurrent send) never replaces the summary of a newer one.
+    @Override
+    public void recordMessage(Message message) {
+        mongoTemplate.upsert(queryFor(message), countersFor(message), Conversation.class);
+        mongoTemplate.updateFirst(newestQueryFor(message), newestFor(message), Conversation.class);
+    }
+
+    @Override
+    public void recordMessages(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // Ordered, so each message's second write sees its first
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Conversation.class);
+        for (Message message : messages) {
+            bulk.upsert(queryFor(message), countersFor(message));
+            bulk.updateOne(newestQueryFor(message), newestFor(message));
+        }
+        bulk.execute();
+    }
+
+    private Query queryFor(Message message) {
+        return new Query(Criteria.where("id").is(Conversation.keyFor(message.getSenderId(), message.getReceiverId())));
+    }
+
+    private Update countersFor(Message message) {
+        // $inc and $max so concurrent sends don't overwrite each other
+        return new Update()
+                .setOnInsert("participants", List.of(message.getSenderId(), message.getReceiverId()))
+                .max("lastTimestamp", message.getTimestamp())
+                .inc("unreadCounts." + message.getReceiverId(), 1);
+    }
+
+    // Matches only while this message's time is the conversation's newest (after the $max above)
+    private Query newestQueryFor(Message message) {
+        return new Query(Criteria.where("id").is(Conversation.keyFor(message.getSenderId(), message.getReceiverId()))
+                .and("lastTimestamp").is(message.getTimestamp()));
+    }
+
+    private Update newestFor(Message message) {
+        return new Update()
+                .set("lastSenderId", message.getSenderId())
+                .set("lastMessagePreview", Conversation.previewOf(message.getContent()));
+    }
+
+    @Override
+    public void markRead(String readerId, String partnerId, long readCount) {
+        if (readCount <= 0) {
+            return;
+        }
+
+        // Decrement by what was actually marked read, so messages that arrive meanwhile stay counted
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(Conversation.keyFor(readerId, partnerId))),
+                new Update().inc("unreadCounts." + readerId, -readCount),
+                Conversation.class);
+    }
+
+    @Override
+    public Map<String, Long> findUnreadCounts(String userId) {
+        String countField = "unreadCounts." + userId;
+
+        // Only conversations with something unread, and only the fields needed to count them
+        Query query = new Query(Criteria.where("participants").is(userId).and(countField).gt(0));
+        query.fields().include("participants").include(countField);
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Conversation conversation : mongoTemplate.find(query, Conversation.class)) {
+            String partnerId = conversation.getParticipants().stream()
+                    .filter(participant -> !participant.equals(userId))
+                    .findFirst()
+                    .orElse(userId);    // Chatting with yourself
+            counts.put(partnerId, conversation.getUnreadCounts().get(userId));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Message;
+
+import java.util.List;
+import java.util.Set;
+
+// Queries that can't be expressed as derived methods, implemented with MongoTemplate
+public interface MessageRepositoryCustom {
+    // One page of the conversation between two users (both directions), oldest first.
+    // beforeId/afterId are message ids used as keyset cursors, either may be null.
+    List<Message> findConversationPage(String userId1, String userId2, String beforeId, String afterId, int limit);
+
+    // Mark every unread message from sender to receiver as read in one update, returns how many changed
+    long markConversationAsRead(String receiverId, String senderId);
+
+    // Insert messages with one unordered insertMany, returns the positions (in the list) that failed
+    Set<Integer> insertUnordered(List<Message> messages);
+
+    // Mark one message as read if it isn't yet, returns it as it was before (null if already read or missing)
+    Message markAsReadIfUnread(String messageId);
+}
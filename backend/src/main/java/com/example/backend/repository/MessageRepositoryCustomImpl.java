@@ -0,0 +1,104 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Message;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+Picked up by Spring Data as the implementation of MessageRepositoryCustom
+(the "Impl" suffix is what links them).
+ */
+public class MessageRepositoryCustomImpl implements MessageRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public MessageRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Message> findConversationPage(String userId1, String userId2, String beforeId, String afterId, int limit) {
+        // Single $or query, each branch served by the {senderId, receiverId, _id} index
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("senderId").is(userId1).and("receiverId").is(userId2),
+                Criteria.where("senderId").is(userId2).and("receiverId").is(userId1)
+        ));
+
+        // Keyset pagination on _id (ObjectIds grow with insertion time)
+        if (beforeId != null || afterId != null) {
+            Criteria idRange = Criteria.where("id");
+            if (beforeId != null) {
+                idRange = idRange.lt(beforeId);
+            }
+            if (afterId != null) {
+                idRange = idRange.gt(afterId);
+            }
+            query.addCriteria(idRange);
+        }
+
+        // Reading forward from a cursor takes the oldest messages after it,
+        // otherwise take the newest ones (latest page when opening a chat)
+        boolean forward = afterId != null && beforeId == null;
+        query.with(Sort.by(forward ? Sort.Direction.ASC : Sort.Direction.DESC, "id"));
+        query.limit(limit);
+
+        List<Message> page = new ArrayList<>(mongoTemplate.find(query, Message.class));
+        if (!forward) {
+            Collections.reverse(page);
+        }
+        return page;
+    }
+
+    @Override
+    public long markConversationAsRead(String receiverId, String senderId) {
+        // Single updateMany, only touches messages that are still unread
+        Query query = new Query(Criteria.where("receiverId").is(receiverId)
+                .and("read").is(false)
+                .and("senderId").is(senderId));
+
+        return mongoTemplate.updateMulti(query, Update.update("read", true), Message.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public Message markAsReadIfUnread(String messageId) {
+        // findAndModify so only one caller sees the unread -> read transition
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(messageId).and("read").is(false)),
+                Update.update("read", true),
+                Message.class);
+    }
+
+    @Override
+    public Set<Integer> insertUnordered(List<Message> messages) {
+        Set<Integer> failed = new HashSet<>();
+        if (messages.isEmpty()) {
+            return failed;
+        }
+
+        // Unordered: one bad document doesn't stop the rest of the batch
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class)
+                    .insert(messages)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+            }
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    // Atomic find-and-remove, so a refresh token can only be used once even under concurrent requests
+    RefreshToken deleteByTokenHash(String tokenHash);
+}
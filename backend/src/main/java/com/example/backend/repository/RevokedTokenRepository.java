@@ -0,0 +1,13 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    // Only the ids, used to rebuild the in-memory revocation filter
+    @Query(value = "{}", fields = "{'_id': 1}")
+    List<RevokedToken> findAllIds();
+}
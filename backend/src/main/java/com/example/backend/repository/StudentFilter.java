@@ -0,0 +1,18 @@
+package com.example.backend.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Optional filters for listing students, null fields are ignored
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentFilter {
+    private String namePrefix;      // Case-sensitive, so the name index can be used
+    private String course;          // Students taking this course
+    private LocalDate bornFrom;     // Inclusive
+    private LocalDate bornTo;       // Inclusive
+}
@@ -0,0 +1,33 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Student;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Queries that can't be expressed as derived methods, implemented with MongoTemplate
+public interface StudentRepositoryCustom {
+    // One page of the students matching the filter, in the pageable's sort order.
+    // With fields, only those (and the id) are read, the others are left null.
+    List<Student> search(StudentFilter filter, Pageable pageable, Set<String> fields);
+
+    // Number of students matching the filter (a separate, more expensive query)
+    long count(StudentFilter filter);
+
+    // Set the given fields (null values are stored as null) and bump the version, in one findAndModify.
+    // With an expectedVersion only that version is updated. Returns the updated student,
+    // or null if no student with that id (and version) exists.
+    Student updateFields(String id, Map<String, Object> fields, Long expectedVersion);
+
+    // Delete with one round trip, false if there was no such student
+    boolean removeById(String id);
+
+    // Insert students with one unordered insertMany, returns the positions (in the list) that failed with the reason
+    Map<Integer, String> insertUnordered(List<Student> students);
+
+    // All students in id order, read from a cursor as the stream is consumed. Must be closed.
+    Stream<Student> streamAll();
+}
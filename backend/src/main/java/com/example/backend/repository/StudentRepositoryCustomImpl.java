@@ -0,0 +1,130 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Student;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/*
+Picked up by Spring Data as the implementation of StudentRepositoryCustom
+(the "Impl" suffix is what links them).
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public StudentRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Student> search(StudentFilter filter, Pageable pageable, Set<String> fields) {
+        // with() applies skip, limit and sort from the pageable
+        Query query = toQuery(filter).with(pageable);
+        if (fields != null) {
+            // Projection: the server only sends these back. id is named explicitly, otherwise
+            // ?fields=id (an empty set) would mean no projection and return whole documents.
+            query.fields().include("id");
+            fields.forEach(query.fields()::include);
+        }
+        return mongoTemplate.find(query, Student.class);
+    }
+
+    @Override
+    public long count(StudentFilter filter) {
+        return mongoTemplate.count(toQuery(filter), Student.class);
+    }
+
+    @Override
+    public Student updateFields(String id, Map<String, Object> fields, Long expectedVersion) {
+        Query query = new Query(Criteria.where("id").is(id));
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+
+        // Only the given fields are written, so concurrent edits of other fields aren't lost
+        Update update = new Update();
+        fields.forEach(update::set);
+        update.inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Student.class);
+    }
+
+    @Override
+    public boolean removeById(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        return mongoTemplate.remove(query, Student.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Student> students) {
+        Map<Integer, String> failed = new HashMap<>();
+        if (students.isEmpty()) {
+            return failed;
+        }
+
+        // Unordered: a rejected document doesn't stop the rest of the batch
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Student.class)
+                    .insert(students)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Stream<Student> streamAll() {
+        // Backed by a cursor, documents are fetched in batches while the stream is read
+        Query query = new Query().with(Sort.by("id"));
+        return mongoTemplate.stream(query, Student.class);
+    }
+
+    private Query toQuery(StudentFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+            // Anchored, case-sensitive regex: Mongo turns it into a range scan on the name index
+            criteria.add(Criteria.where("name").regex("^" + Pattern.quote(filter.getNamePrefix())));
+        }
+        if (filter.getCourse() != null && !filter.getCourse().isEmpty()) {
+            // courses is an array, this matches students that have it among their courses
+            criteria.add(Criteria.where("courses").is(filter.getCourse()));
+        }
+        if (filter.getBornFrom() != null || filter.getBornTo() != null) {
+            Criteria dateOfBirth = Criteria.where("dateOfBirth");
+            if (filter.getBornFrom() != null) {
+                dateOfBirth.gte(filter.getBornFrom());
+            }
+            if (filter.getBornTo() != null) {
+                dateOfBirth.lte(filter.getBornTo());
+            }
+            criteria.add(dateOfBirth);
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Queries that can't be expressed as derived methods, implemented with MongoTemplate
+public interface UserRepositoryCustom {
+    // All users with only the given fields (and the id) read, the others are left null
+    List<User> findAllWithFields(Set<String> fields);
+
+    // Insert users with one unordered insertMany, returns the positions (in the list) that failed with the reason
+    Map<Integer, String> insertUnordered(List<User> users);
+}
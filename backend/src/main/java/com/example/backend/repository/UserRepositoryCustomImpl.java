@@ -0,0 +1,59 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.User;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+Picked up by Spring Data as the implementation of UserRepositoryCustom
+(the "Impl" suffix is what links them).
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<User> findAllWithFields(Set<String> fields) {
+        // id is named explicitly: an empty include list would mean no projection at all,
+        // so ?fields=id would read whole documents, password hash included
+        Query query = new Query();
+        query.fields().include("id");
+        fields.forEach(query.fields()::include);
+        return mongoTemplate.find(query, User.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<User> users) {
+        Map<Integer, String> failed = new HashMap<>();
+        if (users.isEmpty()) {
+            return failed;
+        }
+
+        // Unordered: a taken username doesn't stop the rest of the batch
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class)
+                    .insert(users)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                boolean duplicate = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY;
+                failed.put(error.getIndex(), duplicate ? "Username already exists" : error.getMessage());
+            }
+        }
+        return failed;
+    }
+}
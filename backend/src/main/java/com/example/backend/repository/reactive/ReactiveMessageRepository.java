@@ -0,0 +1,24 @@
+package com.example.backend.repository.reactive;
+
+import com.example.backend.model.Message;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+// Non-blocking counterpart of MessageRepository, results are streamed as they are read
+public interface ReactiveMessageRepository extends ReactiveMongoRepository<Message, String> {
+    // Whole conversation between two users (both directions), oldest first
+    @Query(value = "{ $or: [ { senderId: ?0, receiverId: ?1 }, { senderId: ?1, receiverId: ?0 } ] }",
+            sort = "{ _id: 1 }")
+    Flux<Message> findConversation(String userId1, String userId2);
+
+    // Find unread messages for a user
+    Flux<Message> findByReceiverIdAndReadFalseOrderByTimestampAsc(String receiverId);
+
+    // Sent or received messages after some timestamp
+    @Query(value = "{ $or: [ { senderId: ?0 }, { receiverId: ?0 } ], timestamp: { $gt: ?1 } }",
+            sort = "{ timestamp: 1 }")
+    Flux<Message> findNewMessages(String userId, LocalDateTime since);
+}
@@ -0,0 +1,10 @@
+package com.example.backend.repository.reactive;
+
+import com.example.backend.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of UserRepository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<User> findByUsername(String username);
+}
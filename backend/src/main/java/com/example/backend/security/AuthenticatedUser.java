@@ -0,0 +1,29 @@
+package com.example.backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/*
+Principal of a request authenticated with a JWT.
+
+Built from the verified token claims only, so unlike UserDetails it has
+no password and doesn't need a database lookup.
+The id is null for tokens issued before the "uid" claim was added.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+    private final String id;
+    private final String username;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    // authentication.getName() returns this
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.backend.security;
+
+import com.example.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+BCrypt on its own small thread pool.
+
+Hashing is deliberately slow, so a burst of logins/registrations would
+otherwise occupy the request threads that serve everything else. Here at
+most security.bcrypt.threads hashes run at once, up to
+security.bcrypt.queue-capacity more wait, and anything beyond that is
+rejected with 429 instead of queueing without limit.
+
+upgradeEncoding() reports hashes made with a lower cost than
+security.bcrypt.strength, Spring then rehashes them on the next successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    // Metrics (exposed through actuator)
+    private final Timer queueTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());  // Full queue -> RejectedExecutionException
+
+        this.queueTime = Timer.builder("security.bcrypt.queue.time")
+                .description("Time a hash/verify waited for a bcrypt thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.bcrypt.rejected")
+                .description("Hash/verify requests rejected because the bcrypt queue was full")
+                .register(meterRegistry);
+        // Pool size, active threads, queued tasks and run time
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "bcrypt");
+
+        // Helps pick a strength: aim for tens of milliseconds per hash on the target hardware
+        long start = System.nanoTime();
+        delegate.encode("calibration");
+        log.info("bcrypt strength {} takes {} ms per hash on {} threads",
+                strength, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), threads);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Hashes many passwords in parallel (bulk import), results in the same order.
+    // At most one task per pool thread is in flight, so a big import never fills the
+    // queue that logins rely on; if logins have filled it, the caller hashes itself.
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                inFlight.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return delegate.encode(rawPassword);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    futures.add(CompletableFuture.completedFuture(delegate.encode(rawPassword)));
+                }
+            }
+
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not hash password", e.getCause());
+        }
+    }
+
+    // Cheap (only parses the hash prefix), no need for the pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Called by Spring when the context closes
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Runs the work on the bcrypt pool and waits for the result on the calling thread
+    private <T> T run(Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTime.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return work.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts in progress, try again later");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
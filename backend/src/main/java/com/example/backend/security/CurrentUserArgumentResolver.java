@@ -0,0 +1,59 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import com.example.backend.service.UserService;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.security.Principal;
+
+/*
+Supplies @CurrentUser parameters with the current user's id.
+
+The id comes from the token's "uid" claim, so no query is needed.
+Tokens issued before that claim existed fall back to a lookup by username.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    private final UserService userService;
+
+    public CurrentUserArgumentResolver(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && String.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        Principal principal = webRequest.getUserPrincipal();
+        if (principal == null) {
+            throw new AuthenticationCredentialsNotFoundException("Not authenticated");
+        }
+
+        // Set by JwtAuthFilter, carries the id when the token has it
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof AuthenticatedUser user
+                && user.getId() != null) {
+            return user.getId();
+        }
+
+        // Older token without the id claim, findByUsername returns null once the account is gone
+        User user = userService.findByUsername(principal.getName());
+        if (user == null) {
+            // An authentication error (401 via the security filter chain), not a server error
+            throw new AuthenticationCredentialsNotFoundException("User not found");
+        }
+        return user.getId();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.backend.security;
 
-import com.example.backend.service.UserDetailsServiceImpl;
+import com.example.backend.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +10,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,12 +20,14 @@ import java.io.IOException;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final UserCheckCache userCheckCache;
+    private final TokenRevocationService revocationService;
 
     @Autowired
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, UserCheckCache userCheckCache, TokenRevocationService revocationService) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.userCheckCache = userCheckCache;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -36,6 +39,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Extract authorization header
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String username;
 
         // Skip filter if header is missing or not a Bearer token
@@ -47,20 +51,29 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Extract the token (remove "Bearer " prefix)
         jwt = authHeader.substring(7);
 
+        // Parse and verify the token once, every check below works on these claims
+        try {
+            claims = jwtUtil.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Bad signature, expired or malformed: carry on unauthenticated
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         // Extract username from token
-        username = jwtUtil.extractUsername(jwt);
+        username = claims.getSubject();
 
         // If username exists and no authentication is already set up
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Load user details
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            // Validate token
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            // The signature proves who the user is, no need to load them
+            // (unless the optional, cached account check is turned on)
+            // Revocation is checked in memory, the database is only asked on a (likely) hit
+            if (!revocationService.isRevoked(claims.getId()) && userCheckCache.isActive(username)) {
+                AuthenticatedUser principal = jwtUtil.toPrincipal(claims);
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null, // No credentials needed - already authenticated
-                        userDetails.getAuthorities()
+                        principal.getAuthorities()
                 );
 
                 // Set details
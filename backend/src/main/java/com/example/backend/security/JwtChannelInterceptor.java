@@ -0,0 +1,120 @@
+package com.example.backend.security;
+
+import com.example.backend.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+
+/*
+WebSocket counterpart of JwtAuthFilter.
+
+Browsers can't set headers on the WebSocket handshake, so the token is
+sent in the STOMP CONNECT frame instead. The authenticated user is stored
+on the session and used to resolve /user/** destinations.
+
+Clients may only subscribe to their /user/** queues and only SEND to /app/**,
+so nobody can push frames into the broker's queues (another user's chat).
+The token's expiry and jti are kept on the session and checked again on every
+SUBSCRIBE and SEND, so an expired or revoked token can't open new subscriptions.
+Subscriptions that already exist keep receiving pushes until the client reconnects.
+ */
+@Component
+public class JwtChannelInterceptor implements ChannelInterceptor {
+    // Session attributes set on CONNECT
+    static final String TOKEN_ID_ATTRIBUTE = "jwt.jti";
+    static final String TOKEN_EXPIRY_ATTRIBUTE = "jwt.exp";
+
+    private final JwtUtil jwtUtil;
+    private final UserCheckCache userCheckCache;
+    private final TokenRevocationService revocationService;
+
+    @Autowired
+    public JwtChannelInterceptor(JwtUtil jwtUtil, UserCheckCache userCheckCache,
+                                 TokenRevocationService revocationService) {
+        this.jwtUtil = jwtUtil;
+        this.userCheckCache = userCheckCache;
+        this.revocationService = revocationService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            // Same header format as the REST API
+            String authHeader = accessor.getFirstNativeHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                throw new BadCredentialsException("Missing bearer token");
+            }
+            String jwt = authHeader.substring(7);
+
+            try {
+                Claims claims = jwtUtil.parseClaims(jwt);
+                if (claims.getSubject() == null
+                        || revocationService.isRevoked(claims.getId())
+                        || !userCheckCache.isActive(claims.getSubject())) {
+                    throw new BadCredentialsException("Invalid token");
+                }
+
+                Map<String, Object> session = accessor.getSessionAttributes();
+                if (session != null) {
+                    session.put(TOKEN_ID_ATTRIBUTE, claims.getId());
+                    session.put(TOKEN_EXPIRY_ATTRIBUTE, claims.getExpiration());
+                }
+
+                AuthenticatedUser principal = jwtUtil.toPrincipal(claims);
+                accessor.setUser(new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.getAuthorities()
+                ));
+            } catch (JwtException | IllegalArgumentException e) {
+                throw new BadCredentialsException("Invalid token", e);
+            }
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            // Only allow the per-user queues, so nobody can listen in on another session
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith("/user/")) {
+                throw new AccessDeniedException("Subscription not allowed: " + destination);
+            }
+            checkTokenStillValid(accessor);
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            // Broker destinations (/queue, /user) are server-to-client only
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith("/app/")) {
+                throw new AccessDeniedException("Send not allowed: " + destination);
+            }
+            checkTokenStillValid(accessor);
+        }
+
+        return message;
+    }
+
+    // The token used on CONNECT must not have expired or been revoked since
+    private void checkTokenStillValid(StompHeaderAccessor accessor) {
+        Map<String, Object> session = accessor.getSessionAttributes();
+        Object expiry = session != null ? session.get(TOKEN_EXPIRY_ATTRIBUTE) : null;
+        if (!(expiry instanceof Date expiresAt) || !expiresAt.after(new Date())) {
+            throw new AccessDeniedException("Session token expired, reconnect with a new token");
+        }
+        if (revocationService.isRevoked((String) session.get(TOKEN_ID_ATTRIBUTE))) {
+            throw new AccessDeniedException("Session token revoked");
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.example.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /*
@@ -20,17 +36,82 @@ Utility class that handles all JWT operations:
 - Generating tokens when users log in
 - Extracting information from tokens
 - Validating tokens when users access protected resources
+
+Access tokens are short-lived (jwt.expiration) and carry a unique id (jti)
+so they can be revoked, see RefreshTokenService and TokenRevocationService.
+
+The signing key and parser are built once and reused, both are thread-safe.
+
+Verified claims are cached by SHA-256 of the token (jwt.cache.enabled), so a
+client sending the same token again skips the signature check and JSON parsing.
+An entry is dropped when its token expires. Cached claims are shared, treat them as read-only.
  */
 
-// TODO: In the future, a token refresh and revocation system could be added
 @Component
 public class JwtUtil {
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+
+    // Tokens issued before the roles claim existed, every account was a plain user then
+    private static final List<String> DEFAULT_ROLES = List.of("USER");
+
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+
+    // Token digest -> verified claims, null when caching is off
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtUtil(@Value("${jwt.secret}") String secretKey,
+                   @Value("${jwt.expiration}") long jwtExpiration,
+                   @Value("${jwt.cache.enabled:true}") boolean cacheEnabled,
+                   @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                   MeterRegistry meterRegistry) {
+        // Converts secret key string to the cryptographic key object (once, not per token)
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts
+                .parserBuilder()
+                .setSigningKey(signingKey)      // Uses secret key to verify signature
+                .build();
+        this.jwtExpiration = jwtExpiration;
+
+        if (cacheEnabled) {
+            this.claimsCache = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfter(new ExpireAtTokenExpiry())
+                    .recordStats()
+                    .build();
+            // Hit rate, evictions and size under cache.* with cache=jwt.claims
+            CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
+        } else {
+            this.claimsCache = null;
+        }
+    }
+
+    // Parses and verifies the token once, the claims can then be used for every check.
+    // Throws JwtException if the signature is wrong or the token has expired (invalid tokens are never cached).
+    public Claims parseClaims(String token) {
+        if (claimsCache == null) {
+            return verify(token);
+        }
+        return claimsCache.get(sha256(token), key -> verify(token));
+    }
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private Claims verify(String token) {
+        return parser
+                .parseClaimsJws(token)          // Actually parse and validate the token
+                .getBody();                     // Get the payload section
+    }
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    // Hex SHA-256 of a token, so raw tokens aren't kept (cache keys, stored refresh tokens)
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -48,27 +129,21 @@ public class JwtUtil {
 
     // Parses the token and extracts all of its claims
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey()) // Uses secret key to verify signature
-                .build()
-                .parseClaimsJws(token)          // Actually parse and validate the token
-                .getBody();                     // Get the payload section
-    }
-
-    // Converts secret key string to the cryptographic key object
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parseClaims(token);
     }
 
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(UserDetails userDetails, String userId) {
         Map<String, Object> claims = new HashMap<>();
-        // Could add custom claims here like roles: claims.put("role", "ADMIN")
+        // User id goes in the token so controllers don't have to look it up by username
+        claims.put(USER_ID_CLAIM, userId);
+        // Authorities go in the token so requests can be authorized without loading the user
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -78,15 +153,57 @@ public class JwtUtil {
                 .builder()
                 .setClaims(claims)                                      // Additional data to include
                 .setSubject(subject)                                    // Username
+                .setId(UUID.randomUUID().toString())                    // Unique id (jti), used for revocation
                 .setIssuedAt(new Date(System.currentTimeMillis()))                      // Token creation time
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))    // Expiration time
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)    // Sign with secret key
+                .signWith(signingKey, SignatureAlgorithm.HS256)         // Sign with secret key
                 .compact(); // Generate actual JWT string
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(parseClaims(token), userDetails);
+    }
+
+    public Collection<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        return (roles != null ? roles : DEFAULT_ROLES).stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+    }
+
+    // Principal for a request carrying this (already verified) token
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        return new AuthenticatedUser(
+                claims.get(USER_ID_CLAIM, String.class),
+                claims.getSubject(),
+                extractAuthorities(claims));
     }
 
+    // Same check as validateToken on claims that were already parsed
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date());
+    }
+
+    // Each entry lives until its token's exp, so the cache never returns an expired token
+    private class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long millisLeft = expiration != null
+                    ? expiration.getTime() - System.currentTimeMillis()
+                    : jwtExpiration;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
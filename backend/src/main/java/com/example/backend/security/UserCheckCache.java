@@ -0,0 +1,56 @@
+package com.example.backend.security;
+
+import com.example.backend.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+Optional check that the user behind a valid token still exists and is enabled.
+
+Off by default (jwt.user-check.enabled), a signed token is trusted until it expires.
+When on, the answer is cached per username for jwt.user-check.ttl-seconds,
+so a deleted or disabled account is locked out within that time while
+the database is hit at most once per user per TTL.
+ */
+@Component
+public class UserCheckCache {
+    private final UserDetailsServiceImpl userDetailsService;
+    private final boolean enabled;
+    private final Cache<String, Boolean> activeByUsername;
+
+    @Autowired
+    public UserCheckCache(UserDetailsServiceImpl userDetailsService,
+                          @Value("${jwt.user-check.enabled:false}") boolean enabled,
+                          @Value("${jwt.user-check.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${jwt.user-check.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.enabled = enabled;
+        this.activeByUsername = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)           // Bounded, least recently used users are dropped first
+                .build();
+    }
+
+    public boolean isActive(String username) {
+        if (!enabled) {
+            return true;
+        }
+        return activeByUsername.get(username, this::loadActive);
+    }
+
+    private boolean loadActive(String username) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            return userDetails.isEnabled() && userDetails.isAccountNonLocked();
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+}
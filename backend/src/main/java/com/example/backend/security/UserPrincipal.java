@@ -0,0 +1,60 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/*
+UserDetails that keeps the whole User it was loaded from.
+
+Returned by UserDetailsServiceImpl, so after authenticationManager.authenticate()
+the login code already has the user's id and authorities without loading them again.
+ */
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+    // Accounts without roles (all of them before roles existed) are plain users
+    private static final List<String> DEFAULT_ROLES = List.of("USER");
+
+    private final User user;
+    private final List<GrantedAuthority> authorities;
+
+    // Own copy of the hash, so erasing it doesn't touch the User entity
+    private String password;
+
+    public UserPrincipal(User user) {
+        this.user = user;
+        this.password = user.getPassword();
+        this.authorities = (user.getRoles() != null ? user.getRoles() : DEFAULT_ROLES).stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    // Called once authentication is done, the hash isn't needed after that
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/*
+Read-parse-insert loop shared by the bulk imports (users and students).
+
+The upload is read line by line and rows are inserted in batches of
+batchSize, so memory use depends on the batch size and not on the file size.
+A line that can't be parsed, or a row the insert rejects, only fails itself
+and is reported with its line number in the file.
+ */
+final class BatchImporter<T> {
+    // Rows beyond this still count as failed, but their errors aren't listed
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final int batchSize;
+    private final BatchInserter<T> inserter;
+
+    BatchImporter(int batchSize, BatchInserter<T> inserter) {
+        this.batchSize = batchSize;
+        this.inserter = inserter;
+    }
+
+    // UTF-8 reader over an upload, skipping the byte order mark some tools (e.g. spreadsheets) write
+    static BufferedReader openReader(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+
+    // linesRead is how many lines were consumed before the rows (e.g. a CSV header),
+    // so reported line numbers match the file
+    ImportResult importRows(BufferedReader reader, long linesRead, RowParser<T> parser) throws IOException {
+        ImportResult result = new ImportResult();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        String line;
+        long lineNumber = linesRead;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            T row;
+            try {
+                row = parser.parse(line);
+            } catch (JsonProcessingException e) {
+                reject(result, lineNumber, "Invalid JSON");
+                continue;
+            } catch (IllegalArgumentException e) {
+                reject(result, lineNumber, e.getMessage());
+                continue;
+            }
+
+            batch.add(row);
+            batchLines.add(lineNumber);
+            if (batch.size() == batchSize) {
+                flush(batch, batchLines, result);
+            }
+        }
+        flush(batch, batchLines, result);
+
+        // Insert failures are only known per batch, list everything in file order
+        result.getErrors().sort(Comparator.comparingLong(ImportResult.RowError::getLine));
+        return result;
+    }
+
+    private void flush(List<T> batch, List<Long> batchLines, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> failed = inserter.insert(batch);
+        result.setImported(result.getImported() + batch.size() - failed.size());
+        failed.forEach((index, error) -> reject(result, batchLines.get(index), error));
+
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void reject(ImportResult result, long lineNumber, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResult.RowError(lineNumber, error));
+        }
+    }
+
+    // Turns one line of the upload into a row, throws IllegalArgumentException (or a JSON error) to reject it
+    interface RowParser<T> {
+        T parse(String line) throws IOException;
+    }
+
+    // Writes one batch, returns the positions (in the batch) that failed with the reason
+    interface BatchInserter<T> {
+        Map<Integer, String> insert(List<T> batch);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.backend.service;
+
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.model.Message;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/*
+In-process hub for long-polling clients.
+
+Parked polls subscribe here instead of querying the database, and are
+woken up when ChatService publishes a MessageSentEvent for their user.
+It also remembers the newest message time per user, so a poll can tell
+whether it missed something without running a query.
+
+Only knows about messages sent through this instance. Per-user times are
+forgotten after chat.poll.hub-retention-seconds, so the map only holds recently
+active users; polls asking about anything older fall back to a query.
+Times are compared in milliseconds, the precision Mongo stores them with, so a
+timestamp read back from the database matches the one recorded here.
+ */
+@Service
+public class ChatEventHub {
+    // Anything older than this was sent before the hub started listening
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final Duration retention;
+    private final Cache<String, LocalDateTime> lastMessageAt;
+    private final Map<String, Set<Consumer<MessageSentEvent>>> listeners = new ConcurrentHashMap<>();
+
+    public ChatEventHub() {
+        this(300);
+    }
+
+    @Autowired
+    public ChatEventHub(@Value("${chat.poll.hub-retention-seconds:300}") long retentionSeconds) {
+        this.retention = Duration.ofSeconds(retentionSeconds);
+        this.lastMessageAt = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    // Register a listener for messages sent to or from a user, returns a callback to unsubscribe
+    public Runnable subscribe(String userId, Consumer<MessageSentEvent> listener) {
+        // compute() keeps add/remove atomic with the cleanup of empty sets
+        listeners.compute(userId, (id, userListeners) -> {
+            Set<Consumer<MessageSentEvent>> result = userListeners != null ? userListeners : ConcurrentHashMap.newKeySet();
+            result.add(listener);
+            return result;
+        });
+
+        return () -> listeners.computeIfPresent(userId, (id, userListeners) -> {
+            userListeners.remove(listener);
+            return userListeners.isEmpty() ? null : userListeners;
+        });
+    }
+
+    // Whether the user may have messages newer than the timestamp (true when the hub can't tell)
+    public boolean hasMessagesSince(String userId, LocalDateTime since) {
+        // Before the hub started, or so long ago that the user's entry may have expired
+        if (since.isBefore(startedAt) || since.isBefore(LocalDateTime.now().minus(retention))) {
+            return true;
+        }
+
+        LocalDateTime last = lastMessageAt.getIfPresent(userId);
+        return last != null && last.isAfter(since.truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @EventListener
+    public void onMessageSent(MessageSentEvent event) {
+        Message message = event.getMessage();
+
+        notifyUser(message.getSenderId(), message.getTimestamp(), event);
+        if (!message.getReceiverId().equals(message.getSenderId())) {
+            notifyUser(message.getReceiverId(), message.getTimestamp(), event);
+        }
+    }
+
+    private void notifyUser(String userId, LocalDateTime timestamp, MessageSentEvent event) {
+        // Record before notifying, so a poll that subscribes concurrently either sees this timestamp or gets the event
+        lastMessageAt.asMap().merge(userId, timestamp.truncatedTo(ChronoUnit.MILLIS), (current, latest) -> latest.isAfter(current) ? latest : current);
+
+        Set<Consumer<MessageSentEvent>> userListeners = listeners.get(userId);
+        if (userListeners != null) {
+            userListeners.forEach(listener -> listener.accept(event));
+        }
+    }
+}
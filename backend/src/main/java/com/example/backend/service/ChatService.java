@@ -1,12 +1,24 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.MessageRequest;
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.model.Conversation;
 import com.example.backend.model.Message;
+import com.example.backend.model.User;
+import com.example.backend.repository.ConversationRepository;
 import com.example.backend.repository.MessageRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -18,20 +30,33 @@ Getting a list of users someone has chatted with
  */
 @Service
 public class ChatService {
+    // Most messages accepted by one batch send
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageWriteBuffer writeBuffer;
 
     @Autowired
-    public ChatService(MessageRepository messageRepository, UserService userService) {
+    public ChatService(MessageRepository messageRepository,
+                       ConversationRepository conversationRepository,
+                       UserService userService,
+                       ApplicationEventPublisher eventPublisher,
+                       MessageWriteBuffer writeBuffer) {
         this.messageRepository = messageRepository;
+        this.conversationRepository = conversationRepository;
         this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.writeBuffer = writeBuffer;
     }
 
     // Send a message from a user to a different user
     public Message sendMessage(String senderId, String receiverId, String content) {
         // Check if invalid users
-        userService.findById(senderId);
-        userService.findById(receiverId);
+        User sender = userService.findById(senderId);
+        User receiver = userService.findById(receiverId);
 
         Message message = new Message();
         message.setSenderId(senderId);
@@ -40,39 +65,130 @@ public class ChatService {
         message.setTimestamp(LocalDateTime.now());
         message.setRead(false);
 
-        return messageRepository.save(message);
+        if (writeBuffer.isEnabled()) {
+            return sendBuffered(message, sender, receiver);
+        }
+
+        Message savedMessage = messageRepository.save(message);
+
+        // Keep the conversation summary (chat list, unread counts) in step
+        conversationRepository.recordMessage(savedMessage);
+
+        // Notify listeners (WebSocket push) that a new message exists
+        eventPublisher.publishEvent(new MessageSentEvent(savedMessage, sender.getUsername(), receiver.getUsername()));
+
+        return savedMessage;
     }
 
-    // Get message history between two users
-    public List<Message> getConversation(String userId1, String userId2) {
-        // TODO: Try the other repository method instead of doing the combining logic here
-        // Get messages in both directions
-        List<Message> sentMessages = messageRepository.findBySenderIdAndReceiverIdOrderByTimestampAsc(userId1, userId2);
-        List<Message> receivedMessages = messageRepository.findBySenderIdAndReceiverIdOrderByTimestampAsc(userId2, userId1);
+    // Write-behind mode: queue the message and let the writer save it with others
+    private Message sendBuffered(Message message, User sender, User receiver) {
+        message.setId(new ObjectId().toHexString());    // Known before the write, so it can be returned right away
+        CompletableFuture<Message> saved = writeBuffer.submit(message, sender.getUsername(), receiver.getUsername());
 
-        // Combine and sort by timestamp
-        return Stream.concat(sentMessages.stream(), receivedMessages.stream())
-                .sorted(Comparator.comparing(Message::getTimestamp))
-                .collect(Collectors.toList());
+        if (writeBuffer.acknowledgesOnEnqueue()) {
+            return message;
+        }
+
+        // Wait for the batch containing this message to be written
+        try {
+            return saved.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Whether sendMessage returns before the message is actually saved (write-behind with ack on enqueue)
+    public boolean acknowledgesOnEnqueue() {
+        return writeBuffer.acknowledgesOnEnqueue();
+    }
+
+    // Send many messages from one user in a single insert.
+    // Each request gets an outcome in the same order, so one bad receiver doesn't fail the batch.
+    public List<SendOutcome> sendMessages(String senderId, List<MessageRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch too large, at most " + MAX_BATCH_SIZE + " messages");
+        }
+
+        User sender = userService.findById(senderId);
+
+        // Validate all distinct receivers with one query
+        Set<String> receiverIds = requests.stream()
+                .map(MessageRequest::getReceiverId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, User> receivers = receiverIds.isEmpty() ? Map.of() : userService.findAllByIds(receiverIds);
+
+        List<SendOutcome> outcomes = new ArrayList<>();
+        List<Message> toInsert = new ArrayList<>();
+        List<Integer> insertPositions = new ArrayList<>();  // Position in outcomes of each inserted message
+        LocalDateTime now = LocalDateTime.now();
+
+        for (MessageRequest request : requests) {
+            if (request.getReceiverId() == null || !receivers.containsKey(request.getReceiverId())) {
+                outcomes.add(new SendOutcome(null, "User not found"));
+                continue;
+            }
+
+            Message message = new Message();
+            message.setId(new ObjectId().toHexString());    // Assigned up front so results can report it
+            message.setSenderId(senderId);
+            message.setReceiverId(request.getReceiverId());
+            message.setContent(request.getContent());
+            message.setTimestamp(now);
+            message.setRead(false);
+
+            insertPositions.add(outcomes.size());
+            outcomes.add(new SendOutcome(message, null));
+            toInsert.add(message);
+        }
+
+        // Single unordered insertMany, then record failures against their request
+        Set<Integer> failed = messageRepository.insertUnordered(toInsert);
+        List<Message> saved = new ArrayList<>();
+        for (int i = 0; i < toInsert.size(); i++) {
+            if (failed.contains(i)) {
+                outcomes.set(insertPositions.get(i), new SendOutcome(null, "Could not save message"));
+            } else {
+                saved.add(toInsert.get(i));
+            }
+        }
+
+        // Conversation summaries in one bulk write, then notify listeners
+        conversationRepository.recordMessages(saved);
+        for (Message message : saved) {
+            eventPublisher.publishEvent(new MessageSentEvent(
+                    message, sender.getUsername(), receivers.get(message.getReceiverId()).getUsername()));
+        }
+
+        return outcomes;
+    }
+
+    // Get one page of message history between two users, oldest first
+    // beforeId/afterId are message ids to page from, null for the latest messages
+    public List<Message> getConversation(String userId1, String userId2, String beforeId, String afterId, int limit) {
+        return messageRepository.findConversationPage(userId1, userId2, beforeId, afterId, limit);
     }
 
     // Mark a message as read
     public Message markAsRead(String messageId) {
-        Message message = messageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
+        Message message = messageRepository.markAsReadIfUnread(messageId);
+
+        if (message == null) {
+            // Already read (or doesn't exist), nothing to count
+            return messageRepository.findById(messageId)
+                    .orElseThrow(() -> new RuntimeException("Message not found"));
+        }
 
+        conversationRepository.markRead(message.getReceiverId(), message.getSenderId(), 1);
         message.setRead(true);
-        return messageRepository.save(message);
+        return message;
     }
 
-    // Mark all messages from receiver as read
-    public void markAllAsRead(String senderId, String receiverId) {
-        List<Message> unreadMessages = messageRepository.findByReceiverIdAndSenderIdOrderByTimestampAsc(receiverId, senderId);
-
-        unreadMessages.forEach(message -> {
-            message.setRead(true);
-            messageRepository.save(message);
-        });
+    // Mark all messages from sender to receiver as read, returns the number of messages updated
+    public long markAllAsRead(String senderId, String receiverId) {
+        long updated = messageRepository.markConversationAsRead(receiverId, senderId);
+        conversationRepository.markRead(receiverId, senderId, updated);
+        return updated;
     }
 
     // Get all unread messages for a user
@@ -80,23 +196,27 @@ public class ChatService {
         return messageRepository.findByReceiverIdAndReadFalseOrderByTimestampAsc(userId);
     }
 
-    // Get list of user ids that have a conversation with current user
-    public List<String> getChatUsersList(String userId) {
-        // Get all messages involving this userId
-        List<Message> allMessages = messageRepository.findBySenderIdOrReceiverIdOrderByTimestampDesc(userId, userId);
-
-        // Extract unique user IDs (excluding current user)
-        Set<String> chatUsers = new LinkedHashSet<>();  // Maintains insertion order
+    // Get unread message counts per sender, without loading any messages
+    public Map<String, Long> getUnreadCounts(String userId) {
+        return conversationRepository.findUnreadCounts(userId);
+    }
 
-        for (Message message : allMessages) {
-            if (message.getSenderId().equals(userId)) {
-                chatUsers.add(message.getReceiverId());
-            } else {
-                chatUsers.add(message.getSenderId());
-            }
+    // Get one page of user ids that have a conversation with current user, most recent first
+    public List<String> getChatUsersList(String userId, int page, int size) {
+        // Read from the conversation summaries instead of scanning every message
+        List<Conversation> conversations = conversationRepository
+                .findByParticipantsOrderByLastTimestampDesc(userId, PageRequest.of(page, size));
+
+        // Extract the other participant of each conversation
+        List<String> chatUsers = new ArrayList<>();
+        for (Conversation conversation : conversations) {
+            chatUsers.add(conversation.getParticipants().stream()
+                    .filter(participant -> !participant.equals(userId))
+                    .findFirst()
+                    .orElse(userId));   // Chatting with yourself
         }
 
-        return new ArrayList<>(chatUsers);
+        return chatUsers;
     }
 
     // Get messages newer than specific timestamp (for polling)
@@ -113,4 +233,12 @@ public class ChatService {
                 .sorted(Comparator.comparing(Message::getTimestamp))
                 .collect(Collectors.toList());
     }
+
+    // Outcome of one message of a batch send, either the saved message or an error
+    @Getter
+    @AllArgsConstructor
+    public static class SendOutcome {
+        private final Message message;
+        private final String error;
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Conversation;
+import com.example.backend.model.Message;
+import com.example.backend.repository.ConversationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+One-off rebuild of the conversations collection from existing messages.
+Only needed once for data created before conversation summaries existed,
+enable with chat.conversations.backfill=true and restart.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.conversations.backfill", havingValue = "true")
+public class ConversationBackfill implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(ConversationBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ConversationRepository conversationRepository;
+
+    @Autowired
+    public ConversationBackfill(MongoTemplate mongoTemplate, ConversationRepository conversationRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.conversationRepository = conversationRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, Conversation> conversations = new HashMap<>();
+
+        // Stream with a cursor instead of loading every message, oldest first so the last one wins
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id"));
+        try (Stream<Message> messages = mongoTemplate.stream(query, Message.class)) {
+            messages.forEach(message -> apply(conversations, message));
+        }
+
+        conversationRepository.saveAll(conversations.values());
+        log.info("Rebuilt {} conversation summaries", conversations.size());
+    }
+
+    private void apply(Map<String, Conversation> conversations, Message message) {
+        String key = Conversation.keyFor(message.getSenderId(), message.getReceiverId());
+
+        Conversation conversation = conversations.computeIfAbsent(key, k -> {
+            Conversation created = new Conversation();
+            created.setId(k);
+            created.setParticipants(List.of(message.getSenderId(), message.getReceiverId()));
+            created.setUnreadCounts(new HashMap<>());
+            return created;
+        });
+
+        conversation.setLastSenderId(message.getSenderId());
+        conversation.setLastMessagePreview(Conversation.previewOf(message.getContent()));
+        conversation.setLastTimestamp(message.getTimestamp());
+
+        if (!message.isRead()) {
+            conversation.getUnreadCounts().merge(message.getReceiverId(), 1L, Long::sum);
+        }
+    }
+}
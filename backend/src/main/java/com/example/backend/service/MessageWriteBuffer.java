@@ -0,0 +1,257 @@
+package com.example.backend.service;
+
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.exception.TooManyRequestsException;
+import com.example.backend.model.Message;
+import com.example.backend.repository.ConversationRepository;
+import com.example.backend.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+Optional write-behind mode for ChatService.sendMessage (chat.write-behind.enabled).
+
+Sends are put on a bounded in-memory queue and a single writer thread saves
+them in batches (group commit): a batch is written when it reaches
+chat.write-behind.batch-size or chat.write-behind.linger-ms after its first
+message, whichever comes first.
+
+chat.write-behind.ack decides when the caller gets its answer:
+- FLUSH: after the batch containing the message is saved (nothing is lost on a crash)
+- ENQUEUE: as soon as the message is queued (faster, queued messages are lost on a crash)
+
+When the queue is full new sends are rejected with 429 instead of piling up.
+ */
+@Service
+public class MessageWriteBuffer {
+    public enum Ack { FLUSH, ENQUEUE }
+
+    private static final Logger log = LoggerFactory.getLogger(MessageWriteBuffer.class);
+
+    // How long the idle writer waits for a message before checking whether it should stop
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+    private final Ack ack;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<PendingMessage> queue;
+
+    // Metrics (exposed through actuator)
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter postInsertFailed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public MessageWriteBuffer(MessageRepository messageRepository,
+                              ConversationRepository conversationRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.write-behind.enabled:false}") boolean enabled,
+                              @Value("${chat.write-behind.ack:FLUSH}") Ack ack,
+                              @Value("${chat.write-behind.capacity:10000}") int capacity,
+                              @Value("${chat.write-behind.batch-size:500}") int batchSize,
+                              @Value("${chat.write-behind.linger-ms:10}") long lingerMillis) {
+        this.messageRepository = messageRepository;
+        this.conversationRepository = conversationRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.ack = ack;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("chat.write_behind.queue.depth", queue, Collection::size)
+                .description("Messages waiting to be written")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("chat.write_behind.batch.size")
+                .description("Messages written per bulk insert")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("chat.write_behind.rejected")
+                .description("Sends rejected because the queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("chat.write_behind.failed")
+                .description("Queued messages that could not be saved")
+                .register(meterRegistry);
+        this.postInsertFailed = Counter.builder("chat.write_behind.post_insert_failed")
+                .description("Saved messages whose summary update or notification failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        writer = new Thread(this::drainLoop, "chat-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+
+        // Writer finishes what is queued before exiting. It isn't interrupted: that could
+        // abort a bulk insert in progress. It sees the flag within IDLE_POLL_MILLIS.
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Anything that slipped in after the writer stopped won't be written
+        List<PendingMessage> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(pending -> pending.getFuture().completeExceptionally(
+                new IllegalStateException("Shutting down, message not saved")));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean acknowledgesOnEnqueue() {
+        return enabled && ack == Ack.ENQUEUE;
+    }
+
+    // Queue a message (id already assigned), the future completes once it is saved
+    public CompletableFuture<Message> submit(Message message, String senderUsername, String receiverUsername) {
+        PendingMessage pending = new PendingMessage(message, senderUsername, receiverUsername, new CompletableFuture<>());
+
+        // Backpressure: don't wait for room, let the client retry
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            throw new TooManyRequestsException("Message queue is full, try again later");
+        }
+
+        return pending.getFuture();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            List<PendingMessage> batch = new ArrayList<>(batchSize);
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Not used for shutdown (see stop), keep looping until the queue is empty
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    // Wait for a first message, then keep collecting until the batch is full or the linger time is up
+    private void collectBatch(List<PendingMessage> batch) throws InterruptedException {
+        PendingMessage first = queue.poll(running ? IDLE_POLL_MILLIS : 0, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < batchSize) {
+            // Take whatever is already queued without waiting
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+
+            // Waits in short steps, so a shutdown during a long linger is noticed
+            PendingMessage next = queue.poll(
+                    Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS)), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        batchSizes.record(batch.size());
+
+        List<PendingMessage> saved = new ArrayList<>();
+        try {
+            List<Message> messages = batch.stream().map(PendingMessage::getMessage).toList();
+            Set<Integer> failedIndexes = messageRepository.insertUnordered(messages);
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (failedIndexes.contains(i)) {
+                    batch.get(i).getFuture().completeExceptionally(new RuntimeException("Could not save message"));
+                } else {
+                    saved.add(batch.get(i));
+                }
+            }
+            if (!failedIndexes.isEmpty()) {
+                // With ack=ENQUEUE nobody waits on these futures, so this is the only trace
+                failed.increment(failedIndexes.size());
+                log.error("Write-behind: {} of {} messages in a batch could not be saved",
+                        failedIndexes.size(), batch.size());
+            }
+        } catch (RuntimeException e) {
+            // e.g. database unreachable, fail the whole batch
+            failed.increment(batch.size());
+            log.error("Write-behind: batch of {} messages could not be saved", batch.size(), e);
+            batch.forEach(pending -> pending.getFuture().completeExceptionally(e));
+            return;
+        }
+
+        // The messages are stored: answer the callers now, so a problem below can't make
+        // them retry (and duplicate) a send that already succeeded
+        saved.forEach(pending -> pending.getFuture().complete(pending.getMessage()));
+
+        // Same follow-up as a direct send: summaries, then push/long-poll listeners
+        try {
+            conversationRepository.recordMessages(saved.stream().map(PendingMessage::getMessage).toList());
+            for (PendingMessage pending : saved) {
+                eventPublisher.publishEvent(new MessageSentEvent(
+                        pending.getMessage(), pending.getSenderUsername(), pending.getReceiverUsername()));
+            }
+        } catch (RuntimeException e) {
+            postInsertFailed.increment(saved.size());
+            log.error("Write-behind: {} messages were saved but their summaries/notifications failed",
+                    saved.size(), e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingMessage {
+        private final Message message;
+        private final String senderUsername;
+        private final String receiverUsername;
+        private final CompletableFuture<Message> future;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Message;
+import com.example.backend.model.User;
+import com.example.backend.repository.reactive.ReactiveMessageRepository;
+import com.example.backend.repository.reactive.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/*
+Read side of the chat on the reactive Mongo driver (enabled with the "reactive" profile).
+Nothing blocks a thread while waiting for the database, and results are
+streamed instead of collected into lists.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveChatService {
+    private final ReactiveMessageRepository messageRepository;
+    private final ReactiveUserRepository userRepository;
+
+    @Autowired
+    public ReactiveChatService(ReactiveMessageRepository messageRepository, ReactiveUserRepository userRepository) {
+        this.messageRepository = messageRepository;
+        this.userRepository = userRepository;
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return userRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(new RuntimeException("User not found")));
+    }
+
+    public Mono<User> findById(String id) {
+        return userRepository.findById(id);
+    }
+
+    // Get full message history between two users, oldest first
+    public Flux<Message> getConversation(String userId1, String userId2) {
+        return messageRepository.findConversation(userId1, userId2);
+    }
+
+    // Get all unread messages for a user
+    public Flux<Message> getUnreadMessages(String userId) {
+        return messageRepository.findByReceiverIdAndReadFalseOrderByTimestampAsc(userId);
+    }
+
+    // Get messages newer than specific timestamp (for polling), one query for both directions
+    public Flux<Message> getNewMessages(String userId, LocalDateTime since) {
+        return messageRepository.findNewMessages(userId, since);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.service;
+
+import com.example.backend.model.RefreshToken;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.security.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+/*
+Issues and redeems refresh tokens.
+
+A refresh token is a random opaque string (not a JWT). Only its hash is saved,
+and it can be used once: redeeming it deletes it, the caller gets a new one.
+ */
+@Service
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpiration;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    // Creates a refresh token for the user, the raw value is only returned here
+    public String issue(String userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(JwtUtil.sha256(rawToken));
+        refreshToken.setUserId(userId);
+        refreshToken.setExpiresAt(Instant.now().plusMillis(refreshExpiration));
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    // Uses up a refresh token, returns the id of its user or null if it is unknown, used or expired
+    public String redeem(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return null;
+        }
+
+        RefreshToken refreshToken = refreshTokenRepository.deleteByTokenHash(JwtUtil.sha256(rawToken));
+
+        // The TTL index only cleans up about once a minute, so check expiry here too
+        if (refreshToken == null || refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        return refreshToken.getUserId();
+    }
+
+    public void revoke(String rawToken) {
+        if (rawToken != null && !rawToken.isBlank()) {
+            refreshTokenRepository.deleteByTokenHash(JwtUtil.sha256(rawToken));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Student;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+CSV layout shared by the student import and export:
+
+    name,courses,phoneNumber,dateOfBirth
+    Alice Smith,Math;Science,1234567890,2001-04-12
+
+Courses are separated by ';' and dates are ISO (yyyy-MM-dd). Fields containing
+',' or '"' are quoted, with '"' doubled inside quotes. A record must fit on one line
+(the import reads line by line), so line breaks in a value are exported as spaces.
+ */
+final class StudentCsv {
+    static final String HEADER = "name,courses,phoneNumber,dateOfBirth";
+    static final String COURSE_SEPARATOR = ";";
+
+    private StudentCsv() {
+    }
+
+    // One CSV line (without the line break) for a student, as exported
+    static String toRow(Student student) {
+        return String.join(",",
+                escape(student.getName()),
+                escape(student.getCourses() == null ? null : String.join(COURSE_SEPARATOR, student.getCourses())),
+                escape(student.getPhoneNumber()),
+                escape(student.getDateOfBirth() == null ? null : student.getDateOfBirth().toString()));
+    }
+
+    // Column name -> position, from the header row
+    static Map<String, Integer> columns(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        return columns;
+    }
+
+    // Split one CSV line into its fields, unquoting where needed
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unclosed quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        // Keep the record on one line, so the file imports back
+        value = value.replace("\r\n", " ").replace('\r', ' ').replace('\n', ' ');
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.StudentResponse;
+import com.example.backend.model.Student;
+import com.example.backend.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+Writes every student to the response as it is read from a Mongo cursor,
+so the export never holds the whole collection in memory.
+Both formats can be fed back into the import.
+ */
+@Service
+public class StudentExportService {
+    private final StudentRepository studentRepository;
+    private final ObjectWriter jsonWriter;
+
+    @Autowired
+    public StudentExportService(StudentRepository studentRepository, ObjectMapper objectMapper) {
+        this.studentRepository = studentRepository;
+        this.jsonWriter = objectMapper.writerFor(StudentResponse.class);
+    }
+
+    // One StudentResponse JSON object per line
+    public void exportNdjson(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Student> students = studentRepository.streamAll()) {
+            for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+                writer.write(jsonWriter.writeValueAsString(toResponse(it.next())));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    // Header row, then one row per student (see StudentCsv)
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(StudentCsv.HEADER);
+        writer.write('\n');
+        try (Stream<Student> students = studentRepository.streamAll()) {
+            for (Iterator<Student> it = students.iterator(); it.hasNext(); ) {
+                writer.write(StudentCsv.toRow(it.next()));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private StudentResponse toResponse(Student student) {
+        StudentResponse dto = new StudentResponse();
+        dto.setId(student.getId());
+        dto.setName(student.getName());
+        dto.setCourses(student.getCourses());
+        dto.setPhoneNumber(student.getPhoneNumber());
+        dto.setDateOfBirth(student.getDateOfBirth());
+        dto.setVersion(student.getVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CreateStudentRequest;
+import com.example.backend.dto.ImportResult;
+import com.example.backend.model.Student;
+import com.example.backend.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/*
+Bulk student import from NDJSON (one CreateStudentRequest object per line)
+or CSV (see StudentCsv for the columns).
+
+Like the user import, rows are read and written by BatchImporter in unordered
+insertMany batches, so memory use depends on the batch size and not on the
+file size, and a bad row only fails itself.
+ */
+@Service
+public class StudentImportService {
+    private final ObjectMapper objectMapper;
+    private final BatchImporter<Student> importer;
+
+    @Autowired
+    public StudentImportService(StudentRepository studentRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${students.import.batch-size:1000}") int batchSize) {
+        this.objectMapper = objectMapper;
+        // One round trip per batch
+        this.importer = new BatchImporter<>(batchSize, studentRepository::insertUnordered);
+    }
+
+    public ImportResult importNdjson(InputStream ndjson) throws IOException {
+        return importer.importRows(BatchImporter.openReader(ndjson), 0,
+                line -> toStudent(objectMapper.readValue(line, CreateStudentRequest.class)));
+    }
+
+    public ImportResult importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = BatchImporter.openReader(csv);
+
+        // The header row says which column is which, so the columns may come in any order
+        String header = reader.readLine();
+        if (header == null) {
+            return new ImportResult();
+        }
+        Map<String, Integer> columns = StudentCsv.columns(header);
+        if (!columns.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must have a name column");
+        }
+
+        return importer.importRows(reader, 1, line -> toStudent(toRequest(StudentCsv.split(line), columns)));
+    }
+    private CreateStudentRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        CreateStudentRequest request = new CreateStudentRequest();
+        request.setName(field(fields, columns, "name"));
+        request.setPhoneNumber(field(fields, columns, "phoneNumber"));
+
+        String courses = field(fields, columns, "courses");
+        if (courses != null) {
+            request.setCourses(Arrays.stream(courses.split(StudentCsv.COURSE_SEPARATOR))
+                    .map(String::trim)
+                    .filter(course -> !course.isEmpty())
+                    .toList());
+        }
+
+        String dateOfBirth = field(fields, columns, "dateOfBirth");
+        if (dateOfBirth != null) {
+            try {
+                request.setDateOfBirth(LocalDate.parse(dateOfBirth.trim()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid dateOfBirth: " + dateOfBirth);
+            }
+        }
+        return request;
+    }
+
+    // Value of a column, null when the column is missing or the field is empty
+    private String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private Student toStudent(CreateStudentRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+
+        Student student = new Student();
+        student.setName(request.getName());
+        student.setCourses(request.getCourses());
+        student.setPhoneNumber(request.getPhoneNumber());
+        student.setDateOfBirth(request.getDateOfBirth());
+        return student;
+    }
+}
@@ -1,14 +1,35 @@
 package com.example.backend.service;
 
+import com.example.backend.exception.ConflictException;
 import com.example.backend.model.Student;
+import com.example.backend.repository.StudentFilter;
 import com.example.backend.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/*
+Lookups by id and by name are cached (see spring.cache.* in application.properties).
+Every write here updates or evicts the affected entries. An edit may change the name,
+and the old one isn't known without reading it first, so edits and deletes clear the
+whole by-name cache. Students change rarely compared to how often they're read.
+Not-found lookups throw and are never cached.
+ */
 @Service
 public class StudentService {
+    static final String CACHE_BY_ID = "students";
+    static final String CACHE_BY_NAME = "studentsByName";
+
     private final StudentRepository studentRepository;
 
     @Autowired
@@ -16,30 +37,76 @@ public class StudentService {
         this.studentRepository = studentRepository;
     }
 
+    @CacheEvict(cacheNames = CACHE_BY_NAME, key = "#student.name", condition = "#student.name != null")
     public Student addStudent(Student student) {
         return studentRepository.save(student);
     }
 
+    // Replace all fields of an existing student. Checked against student.getVersion() when it is set.
+    @Caching(
+            put = @CachePut(cacheNames = CACHE_BY_ID, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true))
     public Student editStudent(Student student) {
-        return studentRepository.save(student);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", student.getName());
+        fields.put("courses", student.getCourses());
+        fields.put("phoneNumber", student.getPhoneNumber());
+        fields.put("dateOfBirth", student.getDateOfBirth());
+
+        return updateStudent(student.getId(), fields, student.getVersion());
+    }
+
+    // Change only the given fields of a student, checked against expectedVersion when it is set
+    @Caching(
+            put = @CachePut(cacheNames = CACHE_BY_ID, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true))
+    public Student updateStudent(String id, Map<String, Object> fields, Long expectedVersion) {
+        Student updated = studentRepository.updateFields(id, fields, expectedVersion);
+        if (updated == null) {
+            // Only look further when the update missed, to tell a stale version from a missing student
+            if (expectedVersion != null && studentRepository.existsById(id)) {
+                throw new ConflictException("Student was changed by someone else, reload and try again");
+            }
+            throw new RuntimeException("Student not found");
+        }
+        return updated;
     }
 
+    @Cacheable(cacheNames = CACHE_BY_NAME, key = "#name")
     public Student findByName(String name) {
         return studentRepository.findByName(name)
                 .orElseThrow(() -> new RuntimeException("Student name not found"));
     }
 
+    @Cacheable(cacheNames = CACHE_BY_ID, key = "#id")
     public Student findById(String id) {
         return studentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
     }
 
-    public List<Student> getAllStudents() {
-        return studentRepository.findAll();
+    // Look up several students with one query, keyed by id (ids that don't exist are left out)
+    public Map<String, Student> findAllByIds(Collection<String> ids) {
+        Map<String, Student> students = new HashMap<>();
+        studentRepository.findAllById(ids).forEach(student -> students.put(student.getId(), student));
+        return students;
+    }
+
+    // One page of students matching the filter, with only the given fields loaded (null for all)
+    public List<Student> searchStudents(StudentFilter filter, Pageable pageable, Set<String> fields) {
+        return studentRepository.search(filter, pageable, fields);
+    }
+
+    public long countStudents(StudentFilter filter) {
+        return studentRepository.count(filter);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CACHE_BY_NAME, allEntries = true)})
     public void deleteStudent(String id) {
-        studentRepository.deleteById(id);
+        if (!studentRepository.removeById(id)) {
+            throw new RuntimeException("Student not found");
+        }
     }
 
 }
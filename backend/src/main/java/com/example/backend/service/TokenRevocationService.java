@@ -0,0 +1,145 @@
+package com.example.backend.service;
+
+import com.example.backend.model.RevokedToken;
+import com.example.backend.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+Revocation list for access tokens, checked by JwtAuthFilter on every request.
+
+Revoked jtis are stored in Mongo (until the token would have expired) and
+mirrored in an in-memory bloom filter. A token that isn't in the filter is
+certainly not revoked, so the usual request never touches the database;
+only a filter hit (revoked, or a ~1% false positive) is confirmed with a query.
+
+The filter is rebuilt from the database every jwt.revocation.sync-ms, which
+also picks up tokens revoked on other instances.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private volatile BloomFilter filter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+
+    // Revoked here since the current sync started, merged into the rebuilt filter (guarded by this)
+    private final Set<String> revokedSinceSync = new HashSet<>();
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.before(new Date())) {
+            return;     // Nothing to do, it can't be used anyway
+        }
+
+        // Database first, so a concurrent sync either reads it or sees it in revokedSinceSync
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt.toInstant()));
+        synchronized (this) {
+            filter.put(jti);
+            revokedSinceSync.add(jti);
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        // Bloom filters have false positives, the database has the final word
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:30000}")
+    public void sync() {
+        List<RevokedToken> revoked;
+        try {
+            revoked = revokedTokenRepository.findAllIds();
+        } catch (RuntimeException e) {
+            // Keep the current filter, try again next time
+            log.warn("Could not sync revoked tokens: {}", e.getMessage());
+            return;
+        }
+
+        // Expired entries are removed by the TTL index, so the filter doesn't keep growing
+        BloomFilter next = new BloomFilter(Math.max(MIN_CAPACITY, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.forEach(token -> next.put(token.getJti()));
+
+        synchronized (this) {
+            revokedSinceSync.forEach(next::put);
+            revokedSinceSync.clear();
+            filter = next;
+        }
+    }
+
+    // Fixed-size bloom filter over strings, k bit positions derived from one 64-bit hash.
+    // Words are atomic, so bits set by revoke() are visible to request threads reading without the lock.
+    static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final int numBits;
+        private final int numHashes;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            this.numBits = Math.max(64, (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * ln2));
+            this.bits = new AtomicLongArray((numBits + 63) / 64);
+        }
+
+        void put(String value) {
+            long hash = hash64(value);
+            for (int i = 0; i < numHashes; i++) {
+                int index = indexFor(hash, i);
+                long mask = 1L << index;
+                bits.getAndUpdate(index >>> 6, word -> word | mask);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            for (int i = 0; i < numHashes; i++) {
+                int index = indexFor(hash, i);
+                if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Double hashing: position i = h1 + i * h2
+        private int indexFor(long hash, int i) {
+            int combined = (int) hash + i * (int) (hash >>> 32);
+            return (combined & Integer.MAX_VALUE) % numBits;
+        }
+
+        // FNV-1a followed by a murmur3 finalizer to spread the bits
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -2,20 +2,21 @@ package com.example.backend.service;
 
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.example.backend.security.UserPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 
 /*
 Bridges User model in MongoDB and Spring Security's authentication system.
 Load user from db and adapt them to Spring Security model.
+Also stores rehashed passwords when the bcrypt strength was raised.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     public UserDetailsServiceImpl(UserRepository userRepository) {
@@ -29,13 +30,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         // Convert to Spring Security's UserDetails
-        // The SimpleGrantedAuthority represents a role/permission
-        // The User here is a built in class solely for authentication purposes
-        // The User model has more info and is extensible
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("USER"))
-        );
+        // The principal keeps the whole User, so callers of authenticate() get the id
+        // and authorities without another lookup
+        return new UserPrincipal(user);
+    }
+
+    // Called after a successful login with the password rehashed at the current strength
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        // Same User that was loaded for this login, no need to read it again
+        User user = ((UserPrincipal) userDetails).getUser();
+        user.setPassword(newPassword);
+        userRepository.save(user);
+
+        return new UserPrincipal(user);
     }
 }
@@ -0,0 +1,71 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ImportResult;
+import com.example.backend.dto.RegisterRequest;
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/*
+Bulk user import from NDJSON (one {"username", "password", "email"} object per line).
+
+Read and inserted in batches by BatchImporter. Each batch has its passwords
+hashed in parallel on the bcrypt pool and is written with one unordered
+insertMany; a taken username or a bad line only fails that row.
+ */
+@Service
+public class UserImportService {
+    private final UserRepository userRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final BatchImporter<User> importer;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository,
+                             BoundedPasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             @Value("${users.import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.importer = new BatchImporter<>(batchSize, this::insertBatch);
+    }
+
+    public ImportResult importUsers(InputStream ndjson) throws IOException {
+        return importer.importRows(BatchImporter.openReader(ndjson), 0,
+                line -> toUser(objectMapper.readValue(line, RegisterRequest.class)));
+    }
+
+    private User toUser(RegisterRequest request) {
+        if (request.getUsername() == null || request.getUsername().isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        if (request.getPassword() == null || request.getPassword().isEmpty()) {
+            throw new IllegalArgumentException("Password is required");
+        }
+
+        User user = new User();
+        user.setUsername(request.getUsername());
+        user.setPassword(request.getPassword());
+        user.setEmail(request.getEmail());
+        return user;
+    }
+
+    private Map<Integer, String> insertBatch(List<User> batch) {
+        // Hash the whole batch in parallel, then write it in one round trip
+        List<String> hashes = passwordEncoder.encodeAll(batch.stream().map(User::getPassword).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setPassword(hashes.get(i));
+        }
+        return userRepository.insertUnordered(batch);
+    }
+}
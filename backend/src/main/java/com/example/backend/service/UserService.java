@@ -3,10 +3,15 @@ package com.example.backend.service;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class UserService {
@@ -20,14 +25,16 @@ public class UserService {
     }
 
     public User registerUser(User user) {
-        // Check if username is taken
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-
         // Encode password before saving
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+
+        // Single insert, the unique index on username rejects a taken name
+        // (also when two registrations for it race each other)
+        try {
+            return userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("Username already exists");
+        }
     }
 
     public User findByUsername(String username) {
@@ -39,7 +46,15 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Look up several users with one query, keyed by id (ids that don't exist are left out)
+    public Map<String, User> findAllByIds(Collection<String> ids) {
+        Map<String, User> users = new HashMap<>();
+        userRepository.findAllById(ids).forEach(user -> users.put(user.getId(), user));
+        return users;
+    }
+
+    // All users with only the given fields loaded (password hashes are never needed for a listing)
+    public List<User> getAllUsers(Set<String> fields) {
+        return userRepository.findAllWithFields(fields);
     }
 }
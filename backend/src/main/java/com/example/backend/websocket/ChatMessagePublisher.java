@@ -0,0 +1,36 @@
+package com.example.backend.websocket;
+
+import com.example.backend.dto.MessageResponse;
+import com.example.backend.event.MessageSentEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+Pushes every saved message to both participants over STOMP,
+so connected clients don't need to poll for new messages.
+ */
+@Component
+public class ChatMessagePublisher {
+    public static final String MESSAGE_QUEUE = "/queue/messages";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    public ChatMessagePublisher(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @EventListener
+    public void onMessageSent(MessageSentEvent event) {
+        MessageResponse response = event.toResponse();
+
+        // Clients subscribe to /user/queue/messages, keyed by username (the JWT subject)
+        messagingTemplate.convertAndSendToUser(event.getReceiverUsername(), MESSAGE_QUEUE, response);
+        if (!event.getReceiverUsername().equals(event.getSenderUsername())) {
+            // Sender gets it too, so their other open tabs stay in sync
+            messagingTemplate.convertAndSendToUser(event.getSenderUsername(), MESSAGE_QUEUE, response);
+        }
+    }
+}
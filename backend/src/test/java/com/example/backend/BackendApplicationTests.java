@@ -3,7 +3,8 @@ package com.example.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Index creation needs a live MongoDB, the context test shouldn't
+@SpringBootTest(properties = "spring.data.mongodb.auto-index-creation=false")
 class BackendApplicationTests {
 
 	@Test
@@ -0,0 +1,97 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Cost of checking one request's token in JwtAuthFilter.
+
+- perRequestKeyAndTriplePass: what the filter used to do, decode the key and
+  build a parser on every call, and parse the token three times
+  (extractUsername, then validateToken -> extractUsername + extractExpiration)
+- cachedParserSinglePass: cached key/parser, one parseClaims + isTokenValid
+- claimsCacheHit: same, with the verified-claims cache on (repeat token)
+
+Not run by the test phase (no @Test), run it by hand after test-compile:
+    mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+    java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+        com.example.backend.benchmark.JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private static final String SECRET = "unsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkey";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.DAYS.toMillis(1), false, 0, new SimpleMeterRegistry());
+        cachingJwtUtil = new JwtUtil(SECRET, TimeUnit.DAYS.toMillis(1), true, 10_000, new SimpleMeterRegistry());
+        userDetails = new User("benchuser", "unused", List.of());
+        token = jwtUtil.generateToken(userDetails, "bench-user-id");
+    }
+
+    @Benchmark
+    public boolean perRequestKeyAndTriplePass() {
+        String username = legacyParse(token).getSubject();
+        return username.equals(userDetails.getUsername())
+                && legacyParse(token).getSubject().equals(userDetails.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean cachedParserSinglePass() {
+        Claims claims = jwtUtil.parseClaims(token);
+        return jwtUtil.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean claimsCacheHit() {
+        Claims claims = cachingJwtUtil.parseClaims(token);
+        return cachingJwtUtil.isTokenValid(claims, userDetails);
+    }
+
+    // The old extractAllClaims: new key and parser for every claim lookup
+    private static Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.backend.config;
+
+import com.example.backend.model.User;
+import com.example.backend.security.CurrentUser;
+import com.example.backend.security.JwtAuthFilter;
+import com.example.backend.service.UserDetailsServiceImpl;
+import com.example.backend.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs requests through the real security filter chain, which standalone MockMvc leaves out
+@SpringJUnitWebConfig(SecurityConfigTest.Config.class)
+public class SecurityConfigTest {
+
+    @Configuration
+    @EnableWebMvc
+    @Import({SecurityConfig.class, WebConfig.class})
+    static class Config {
+        @Bean
+        JwtAuthFilter jwtAuthFilter() {
+            return mock(JwtAuthFilter.class);
+        }
+
+        @Bean
+        UserDetailsServiceImpl userDetailsService() {
+            return mock(UserDetailsServiceImpl.class);
+        }
+
+        @Bean
+        UserService userService() {
+            return mock(UserService.class);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        MeController meController() {
+            return new MeController();
+        }
+    }
+
+    @RestController
+    static class MeController {
+        @GetMapping("/api/me")
+        String me(@CurrentUser String userId) {
+            return userId;
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Autowired
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reset(jwtAuthFilter, userService);
+        // Stands in for the JWT check: any "Bearer <username>" header authenticates as that username
+        doAnswer(invocation -> {
+            HttpServletRequest request = invocation.getArgument(0);
+            String header = request.getHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        header.substring(7), null, List.of()));
+            }
+            invocation.<FilterChain>getArgument(2).doFilter(request, invocation.getArgument(1));
+            return null;
+        }).when(jwtAuthFilter).doFilter(any(), any(), any());
+
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(springSecurityFilterChain)
+                .build();
+    }
+
+    @Test
+    void protectedEndpoint_WithoutToken_ShouldReturn401() throws Exception {
+        mockMvc.perform(get("/api/me"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void currentUser_WhenAccountIsGone_ShouldReturn401() throws Exception {
+        // ARRANGE: a valid token for a user that no longer exists
+        when(userService.findByUsername("ghost")).thenReturn(null);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/me").header("Authorization", "Bearer ghost"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void currentUser_WhenAccountExists_ShouldResolveId() throws Exception {
+        // ARRANGE
+        User user = new User();
+        user.setId("user-1");
+        when(userService.findByUsername("alice")).thenReturn(user);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/me").header("Authorization", "Bearer alice"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("user-1"));
+    }
+}
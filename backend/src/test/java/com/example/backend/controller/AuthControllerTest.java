@@ -1,12 +1,17 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.LoginRequest;
+import com.example.backend.dto.RefreshRequest;
 import com.example.backend.dto.RegisterRequest;
 import com.example.backend.model.User;
 import com.example.backend.security.JwtUtil;
+import com.example.backend.security.UserPrincipal;
+import com.example.backend.service.RefreshTokenService;
+import com.example.backend.service.TokenRevocationService;
 import com.example.backend.service.UserDetailsServiceImpl;
 import com.example.backend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,13 +22,18 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Date;
+
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -44,6 +54,12 @@ public class AuthControllerTest {
     @Mock
     private UserDetailsServiceImpl userDetailsService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
     @InjectMocks
     private AuthController authController;
 
@@ -56,6 +72,7 @@ public class AuthControllerTest {
     private final String TEST_EMAIL = "test@example.com";
     private final String TEST_USER_ID = "user123";
     private final String TEST_TOKEN = "jwt.test.token";
+    private final String TEST_REFRESH_TOKEN = "refresh-token";
 
     @BeforeEach
     void setUp() {
@@ -77,15 +94,8 @@ public class AuthControllerTest {
         savedUser.setUsername(TEST_USERNAME);
         savedUser.setEmail(TEST_EMAIL);
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(TEST_USERNAME)
-                .password("encodedPassword")
-                .authorities("USER")
-                .build();
-
         when(userService.registerUser(any(User.class))).thenReturn(savedUser);
-        when(userDetailsService.loadUserByUsername(TEST_USERNAME)).thenReturn(userDetails);
-        when(jwtUtil.generateToken(userDetails)).thenReturn(TEST_TOKEN);
+        when(jwtUtil.generateToken(any(UserPrincipal.class), eq(TEST_USER_ID))).thenReturn(TEST_TOKEN);
 
         // ACT & ASSERT
         mockMvc.perform(post("/api/auth/register")
@@ -127,16 +137,12 @@ public class AuthControllerTest {
         user.setId(TEST_USER_ID);
         user.setUsername(TEST_USERNAME);
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(TEST_USERNAME)
-                .password("encodedPassword")
-                .authorities("USER")
-                .build();
-
-        // Mock successful authentication
-        when(userService.findByUsername(TEST_USERNAME)).thenReturn(user);
-        when(userDetailsService.loadUserByUsername(TEST_USERNAME)).thenReturn(userDetails);
-        when(jwtUtil.generateToken(userDetails)).thenReturn(TEST_TOKEN);
+        // Mock successful authentication, the principal carries the loaded user
+        UserPrincipal principal = new UserPrincipal(user);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(jwtUtil.generateToken(principal, TEST_USER_ID)).thenReturn(TEST_TOKEN);
+        when(refreshTokenService.issue(TEST_USER_ID)).thenReturn(TEST_REFRESH_TOKEN);
 
         // ACT & ASSERT
         mockMvc.perform(post("/api/auth/login")
@@ -145,7 +151,74 @@ public class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token", is(TEST_TOKEN)))
                 .andExpect(jsonPath("$.userId", is(TEST_USER_ID)))
-                .andExpect(jsonPath("$.username", is(TEST_USERNAME)));
+                .andExpect(jsonPath("$.username", is(TEST_USERNAME)))
+                .andExpect(jsonPath("$.refreshToken", is(TEST_REFRESH_TOKEN)));
+
+        // User came with the authentication result, not loaded again
+        verify(userService, never()).findByUsername(any());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void refresh_WithValidToken_ShouldReturnNewTokens() throws Exception {
+        // ARRANGE
+        RefreshRequest request = new RefreshRequest();
+        request.setRefreshToken(TEST_REFRESH_TOKEN);
+
+        User user = new User();
+        user.setId(TEST_USER_ID);
+        user.setUsername(TEST_USERNAME);
+
+        when(refreshTokenService.redeem(TEST_REFRESH_TOKEN)).thenReturn(TEST_USER_ID);
+        when(userService.findById(TEST_USER_ID)).thenReturn(user);
+        when(jwtUtil.generateToken(any(UserPrincipal.class), eq(TEST_USER_ID))).thenReturn(TEST_TOKEN);
+        when(refreshTokenService.issue(TEST_USER_ID)).thenReturn("next-refresh-token");
+
+        // ACT & ASSERT: old refresh token is used up, a new one is handed out
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", is(TEST_TOKEN)))
+                .andExpect(jsonPath("$.refreshToken", is("next-refresh-token")));
+    }
+
+    @Test
+    void refresh_WithUsedOrUnknownToken_ShouldReturnUnauthorized() throws Exception {
+        // ARRANGE
+        RefreshRequest request = new RefreshRequest();
+        request.setRefreshToken("already-used");
+
+        when(refreshTokenService.redeem("already-used")).thenReturn(null);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessAndRefreshTokens() throws Exception {
+        // ARRANGE
+        RefreshRequest request = new RefreshRequest();
+        request.setRefreshToken(TEST_REFRESH_TOKEN);
+
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(expiration);
+        when(jwtUtil.parseClaims(TEST_TOKEN)).thenReturn(claims);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer " + TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNoContent());
+
+        verify(refreshTokenService).revoke(TEST_REFRESH_TOKEN);
+        verify(revocationService).revoke("jti-1", expiration);
     }
 
     @Test
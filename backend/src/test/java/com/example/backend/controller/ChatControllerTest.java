@@ -1,8 +1,12 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.MessageRequest;
+import com.example.backend.event.MessageSentEvent;
 import com.example.backend.model.Message;
 import com.example.backend.model.User;
+import com.example.backend.security.AuthenticatedUser;
+import com.example.backend.security.CurrentUserArgumentResolver;
+import com.example.backend.service.ChatEventHub;
 import com.example.backend.service.ChatService;
 import com.example.backend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,28 +15,37 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +61,10 @@ public class ChatControllerTest {
     @Mock
     private Authentication authentication;
 
+    // Real hub so long-poll tests can publish events
+    @Spy
+    private ChatEventHub chatEventHub = new ChatEventHub();
+
     @InjectMocks
     private ChatController chatController;
 
@@ -68,6 +85,7 @@ public class ChatControllerTest {
         // Set up MockMvc
         mockMvc = MockMvcBuilders
                 .standaloneSetup(chatController)
+                .setCustomArgumentResolvers(new CurrentUserArgumentResolver(userService))
                 .build();
 
         // Set up Authentication mock
@@ -116,6 +134,41 @@ public class ChatControllerTest {
         verify(chatService).sendMessage(CURRENT_USER_ID, OTHER_USER_ID, request.getContent());
     }
 
+    @Test
+    void sendMessages_ShouldReportResultPerItem() throws Exception {
+        // ARRANGE: second receiver doesn't exist
+        MessageRequest first = new MessageRequest();
+        first.setReceiverId(OTHER_USER_ID);
+        first.setContent("Build passed");
+        MessageRequest second = new MessageRequest();
+        second.setReceiverId("missing");
+        second.setContent("Build failed");
+
+        Message sentMessage = createTestMessage(MESSAGE_ID, CURRENT_USER_ID, OTHER_USER_ID,
+                "Build passed", LocalDateTime.now(), false);
+
+        when(chatService.sendMessages(eq(CURRENT_USER_ID), any())).thenReturn(List.of(
+                new ChatService.SendOutcome(sentMessage, null),
+                new ChatService.SendOutcome(null, "User not found")
+        ));
+        mockUserLookup(createTestUser(OTHER_USER_ID, "otheruser", "other@example.com"));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/chat/send/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, second)))
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].sent", is(true)))
+                .andExpect(jsonPath("$[0].message.id", is(MESSAGE_ID)))
+                .andExpect(jsonPath("$[0].message.receiverUsername", is("otheruser")))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].sent", is(false)))
+                .andExpect(jsonPath("$[1].error", is("User not found")));
+    }
+
     @Test
     void getConversation_ShouldReturnMessages() throws Exception {
         // ARRANGE
@@ -124,11 +177,10 @@ public class ChatControllerTest {
                 createTestMessage("msg2", OTHER_USER_ID, CURRENT_USER_ID, "Hi there", LocalDateTime.now(), false)
         );
 
-        when(chatService.getConversation(CURRENT_USER_ID, OTHER_USER_ID)).thenReturn(conversation);
+        when(chatService.getConversation(CURRENT_USER_ID, OTHER_USER_ID, null, null, 50)).thenReturn(conversation);
 
-        // Mock other user for username lookup
-        User otherUser = createTestUser(OTHER_USER_ID, "otheruser", "other@example.com");
-        when(userService.findById(OTHER_USER_ID)).thenReturn(otherUser);
+        // Mock other user for the batched username lookup
+        mockUserLookup(createTestUser(OTHER_USER_ID, "otheruser", "other@example.com"));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/chat/conversation/{userId}", OTHER_USER_ID)
@@ -145,10 +197,35 @@ public class ChatControllerTest {
                 .andExpect(jsonPath("$[1].senderId", is(OTHER_USER_ID)))
                 .andExpect(jsonPath("$[1].receiverId", is(CURRENT_USER_ID)))
                 .andExpect(jsonPath("$[1].content", is("Hi there")))
-                .andExpect(jsonPath("$[1].read", is(false)));
+                .andExpect(jsonPath("$[1].read", is(false)))
+                .andExpect(jsonPath("$[0].senderUsername", is(CURRENT_USERNAME)))
+                .andExpect(jsonPath("$[1].senderUsername", is("otheruser")));
 
         // Verify messages were marked as read
         verify(chatService).markAllAsRead(OTHER_USER_ID, CURRENT_USER_ID);
+
+        // Usernames resolved with one query, not one per message
+        verify(userService, times(1)).findAllByIds(any());
+        verify(userService, never()).findById(any());
+    }
+
+    @Test
+    void getConversation_WithCursor_ShouldRequestOlderPage() throws Exception {
+        // ARRANGE
+        List<Message> olderPage = Collections.singletonList(
+                createTestMessage("msg0", OTHER_USER_ID, CURRENT_USER_ID, "Earlier", LocalDateTime.now().minusDays(1), true)
+        );
+
+        when(chatService.getConversation(CURRENT_USER_ID, OTHER_USER_ID, "msg1", null, 200)).thenReturn(olderPage);
+
+        // ACT & ASSERT: limit is capped at the maximum page size
+        mockMvc.perform(get("/api/chat/conversation/{userId}", OTHER_USER_ID)
+                        .param("before", "msg1")
+                        .param("limit", "1000")
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("msg0")));
     }
 
     @Test
@@ -165,9 +242,8 @@ public class ChatControllerTest {
 
         when(chatService.markAsRead(MESSAGE_ID)).thenReturn(message);
 
-        // Mock users for username lookup
-        User otherUser = createTestUser(OTHER_USER_ID, "otheruser", "other@example.com");
-        when(userService.findById(OTHER_USER_ID)).thenReturn(otherUser);
+        // Mock other user for the batched username lookup
+        mockUserLookup(createTestUser(OTHER_USER_ID, "otheruser", "other@example.com"));
 
         // ACT & ASSERT
         mockMvc.perform(post("/api/chat/mark-read/{messageId}", MESSAGE_ID)
@@ -191,9 +267,8 @@ public class ChatControllerTest {
 
         when(chatService.getUnreadMessages(CURRENT_USER_ID)).thenReturn(unreadMessages);
 
-        // Mock other user for username lookup
-        User otherUser = createTestUser(OTHER_USER_ID, "otheruser", "other@example.com");
-        when(userService.findById(OTHER_USER_ID)).thenReturn(otherUser);
+        // Mock other user for the batched username lookup
+        mockUserLookup(createTestUser(OTHER_USER_ID, "otheruser", "other@example.com"));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/chat/unread")
@@ -209,15 +284,49 @@ public class ChatControllerTest {
                 .andExpect(jsonPath("$[1].read", is(false)));
     }
 
+    @Test
+    void getUnreadCounts_ShouldReturnPerUserAndTotal() throws Exception {
+        // ARRANGE
+        when(chatService.getUnreadCounts(CURRENT_USER_ID)).thenReturn(Map.of(OTHER_USER_ID, 3L, "user789", 2L));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/chat/unread/counts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(5)))
+                .andExpect(jsonPath("$.byUser." + OTHER_USER_ID, is(3)))
+                .andExpect(jsonPath("$.byUser.user789", is(2)));
+
+        // Counters only, no messages loaded
+        verify(chatService, never()).getUnreadMessages(any());
+    }
+
+    @Test
+    void getUnreadCounts_WithUserIdInToken_ShouldNotLookUpUser() throws Exception {
+        // ARRANGE: principal as set by JwtAuthFilter for a token with the uid claim
+        AuthenticatedUser principal = new AuthenticatedUser(CURRENT_USER_ID, CURRENT_USERNAME, List.of());
+        when(authentication.getPrincipal()).thenReturn(principal);
+        when(chatService.getUnreadCounts(CURRENT_USER_ID)).thenReturn(Map.of(OTHER_USER_ID, 1L));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/chat/unread/counts")
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)));
+
+        // Id came from the token
+        verify(userService, never()).findByUsername(any());
+    }
+
     @Test
     void getChatUsers_ShouldReturnUserList() throws Exception {
         // ARRANGE
         List<String> userIds = Arrays.asList(OTHER_USER_ID);
-        when(chatService.getChatUsersList(CURRENT_USER_ID)).thenReturn(userIds);
+        when(chatService.getChatUsersList(CURRENT_USER_ID, 0, 50)).thenReturn(userIds);
 
-        // Mock other user for lookup
-        User otherUser = createTestUser(OTHER_USER_ID, "otheruser", "other@example.com");
-        when(userService.findById(OTHER_USER_ID)).thenReturn(otherUser);
+        // Mock other user for the batched username lookup
+        mockUserLookup(createTestUser(OTHER_USER_ID, "otheruser", "other@example.com"));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/chat/users")
@@ -243,9 +352,8 @@ public class ChatControllerTest {
         when(chatService.getNewMessages(eq(CURRENT_USER_ID), any(LocalDateTime.class)))
                 .thenReturn(newMessages);
 
-        // Mock other user for username lookup
-        User otherUser = createTestUser(OTHER_USER_ID, "otheruser", "other@example.com");
-        when(userService.findById(OTHER_USER_ID)).thenReturn(otherUser);
+        // Mock other user for the batched username lookup
+        mockUserLookup(createTestUser(OTHER_USER_ID, "otheruser", "other@example.com"));
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/chat/poll")
@@ -259,6 +367,100 @@ public class ChatControllerTest {
                 .andExpect(jsonPath("$[0].read", is(false)));
     }
 
+    @Test
+    void longPoll_ShouldReturnMessageWhenOneIsSent() throws Exception {
+        // ARRANGE: timestamp after the hub started, so nothing can have been missed
+        String timestamp = LocalDateTime.now().plusSeconds(1).toString();
+
+        // ACT: request is parked
+        MvcResult parked = mockMvc.perform(get("/api/chat/poll")
+                        .param("timestamp", timestamp)
+                        .param("wait", "10")
+                        .principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // No database query while waiting
+        verify(chatService, never()).getNewMessages(any(), any());
+
+        Message message = createTestMessage("msg4", OTHER_USER_ID, CURRENT_USER_ID, "Wake up",
+                LocalDateTime.now().plusSeconds(2), false);
+        chatEventHub.onMessageSent(new MessageSentEvent(message, "otheruser", CURRENT_USERNAME));
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(parked))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("msg4")))
+                .andExpect(jsonPath("$[0].senderUsername", is("otheruser")))
+                .andExpect(jsonPath("$[0].content", is("Wake up")));
+    }
+
+    @Test
+    void longPoll_WithOldTimestamp_ShouldQueryImmediately() throws Exception {
+        // ARRANGE: timestamp before the hub started, so it must fall back to the database
+        LocalDateTime since = LocalDateTime.now().minusMinutes(10);
+
+        List<Message> newMessages = Collections.singletonList(
+                createTestMessage("msg3", OTHER_USER_ID, CURRENT_USER_ID, "New message", LocalDateTime.now(), false)
+        );
+        when(chatService.getNewMessages(eq(CURRENT_USER_ID), any(LocalDateTime.class)))
+                .thenReturn(newMessages);
+
+        // ACT & ASSERT
+        MvcResult result = mockMvc.perform(get("/api/chat/poll")
+                        .param("timestamp", since.toString())
+                        .param("wait", "10")
+                        .principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("msg3")));
+    }
+
+    @Test
+    void longPoll_WithOldTimestampAndNothingNew_ShouldKeepWaiting() throws Exception {
+        // ARRANGE: the hub can't tell for an old timestamp, and the database has nothing newer
+        LocalDateTime since = LocalDateTime.now().minusMinutes(10);
+        when(chatService.getNewMessages(eq(CURRENT_USER_ID), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        // ACT: parked after the one query instead of answering an empty list
+        MvcResult parked = mockMvc.perform(get("/api/chat/poll")
+                        .param("timestamp", since.toString())
+                        .param("wait", "10")
+                        .principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        verify(chatService, times(1)).getNewMessages(eq(CURRENT_USER_ID), any(LocalDateTime.class));
+        // Still no result, getAsyncResult gives up right away
+        assertThrows(IllegalStateException.class, () -> parked.getAsyncResult(0));
+
+        Message message = createTestMessage("msg5", OTHER_USER_ID, CURRENT_USER_ID, "Finally",
+                LocalDateTime.now(), false);
+        chatEventHub.onMessageSent(new MessageSentEvent(message, "otheruser", CURRENT_USERNAME));
+
+        // ASSERT: answered by the event, not by the query
+        mockMvc.perform(asyncDispatch(parked))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is("msg5")));
+    }
+
+    // Helper method to mock the batched username lookup (current user is always known)
+    private void mockUserLookup(User... users) {
+        Map<String, User> usersById = new HashMap<>();
+        usersById.put(CURRENT_USER_ID, createTestUser(CURRENT_USER_ID, CURRENT_USERNAME, "test@example.com"));
+        for (User user : users) {
+            usersById.put(user.getId(), user);
+        }
+        when(userService.findAllByIds(any())).thenReturn(usersById);
+    }
+
     // Helper method to create test users
     private User createTestUser(String id, String username, String email) {
         User user = new User();
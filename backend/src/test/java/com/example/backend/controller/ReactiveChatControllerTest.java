@@ -0,0 +1,138 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.Message;
+import com.example.backend.model.User;
+import com.example.backend.service.ReactiveChatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReactiveChatControllerTest {
+
+    @Mock
+    private ReactiveChatService chatService;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private ReactiveChatController chatController;
+
+    private MockMvc mockMvc;
+
+    // Test data
+    private final String CURRENT_USER_ID = "user123";
+    private final String CURRENT_USERNAME = "testuser";
+    private final String OTHER_USER_ID = "user456";
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(chatController)
+                .build();
+
+        // Set up Authentication mock and users
+        when(authentication.getName()).thenReturn(CURRENT_USERNAME);
+
+        User currentUser = createTestUser(CURRENT_USER_ID, CURRENT_USERNAME);
+        User otherUser = createTestUser(OTHER_USER_ID, "otheruser");
+        when(chatService.findByUsername(CURRENT_USERNAME)).thenReturn(Mono.just(currentUser));
+        when(chatService.findById(CURRENT_USER_ID)).thenReturn(Mono.just(currentUser));
+        when(chatService.findById(OTHER_USER_ID)).thenReturn(Mono.just(otherUser));
+    }
+
+    @Test
+    void getConversation_ShouldStreamMessagesAsNdjson() throws Exception {
+        // ARRANGE
+        when(chatService.getConversation(CURRENT_USER_ID, OTHER_USER_ID)).thenReturn(Flux.just(
+                createTestMessage("msg1", CURRENT_USER_ID, OTHER_USER_ID, "Hello"),
+                createTestMessage("msg2", OTHER_USER_ID, CURRENT_USER_ID, "Hi there"),
+                createTestMessage("msg3", OTHER_USER_ID, CURRENT_USER_ID, "How are you?")
+        ));
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/api/reactive/chat/conversation/{userId}", OTHER_USER_ID)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT: one JSON document per line, usernames filled in
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"id\":\"msg1\"")))
+                .andExpect(content().string(containsString("\"senderUsername\":\"otheruser\"")))
+                .andExpect(content().string(containsString("\"content\":\"How are you?\"")));
+
+        // Each user looked up once, not once per message
+        verify(chatService, times(1)).findById(OTHER_USER_ID);
+    }
+
+    @Test
+    void pollNewMessages_ShouldStreamNewMessages() throws Exception {
+        // ARRANGE
+        when(chatService.getNewMessages(eq(CURRENT_USER_ID), any(LocalDateTime.class))).thenReturn(Flux.just(
+                createTestMessage("msg4", OTHER_USER_ID, CURRENT_USER_ID, "New message")
+        ));
+
+        // ACT & ASSERT
+        MvcResult result = mockMvc.perform(get("/api/reactive/chat/poll")
+                        .param("timestamp", LocalDateTime.now().minusMinutes(5).toString())
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"id\":\"msg4\"")));
+    }
+
+    // Helper method to create test users
+    private User createTestUser(String id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+
+    // Helper method to create test messages
+    private Message createTestMessage(String id, String senderId, String receiverId, String content) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setContent(content);
+        message.setTimestamp(LocalDateTime.now());
+        message.setRead(false);
+        return message;
+    }
+}
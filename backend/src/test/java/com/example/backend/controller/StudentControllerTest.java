@@ -10,8 +10,13 @@ package com.example.backend.controller;
 
 
 import com.example.backend.dto.CreateStudentRequest;
+import com.example.backend.dto.ImportResult;
 import com.example.backend.dto.UpdateStudentRequest;
+import com.example.backend.exception.ConflictException;
 import com.example.backend.model.Student;
+import com.example.backend.repository.StudentFilter;
+import com.example.backend.service.StudentExportService;
+import com.example.backend.service.StudentImportService;
 import com.example.backend.service.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,22 +25,38 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -45,6 +66,12 @@ public class StudentControllerTest {
     @Mock
     private StudentService studentService;
 
+    @Mock
+    private StudentImportService studentImportService;
+
+    @Mock
+    private StudentExportService studentExportService;
+
     // Inject StudentService into the controller
     @InjectMocks
     private StudentController studentController;
@@ -76,8 +103,8 @@ public class StudentControllerTest {
                 createTestStudent("2", "Bob Jones", List.of("History", "English"), "0987654321")
         );
 
-        // Tell the mock service to return this data when getAllStudents() is called
-        when(studentService.getAllStudents()).thenReturn(students);
+        // Tell the mock service to return this data for the first (default) page
+        when(studentService.searchStudents(any(StudentFilter.class), any(Pageable.class), isNull())).thenReturn(students);
 
         // ACT & ASSERT: Perform the request and verify the response
         mockMvc.perform(get("/api/students")
@@ -90,6 +117,61 @@ public class StudentControllerTest {
                 .andExpect(jsonPath("$[1].name", is("Bob Jones")));
     }
 
+    @Test
+    void getAllStudents_WithFiltersAndTotal_ShouldPassThemOnAndSetTotalHeader() throws Exception {
+        // ARRANGE
+        List<Student> students = List.of(
+                createTestStudent("1", "Alice Smith", List.of("Math", "Science"), "1234567890"));
+
+        StudentFilter expectedFilter = new StudentFilter(
+                "Al", "Math", LocalDate.of(2000, 1, 1), LocalDate.of(2005, 12, 31));
+        Pageable expectedPage = PageRequest.of(2, 10,
+                Sort.by(Sort.Direction.DESC, "dateOfBirth").and(Sort.by(Sort.Direction.DESC, "id")));
+
+        when(studentService.searchStudents(expectedFilter, expectedPage, null)).thenReturn(students);
+        when(studentService.countStudents(expectedFilter)).thenReturn(21L);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/students")
+                        .param("page", "2")
+                        .param("size", "10")
+                        .param("sort", "dateOfBirth,desc")
+                        .param("name", "Al")
+                        .param("course", "Math")
+                        .param("bornFrom", "2000-01-01")
+                        .param("bornTo", "2005-12-31")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "21"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Alice Smith")));
+    }
+
+    @Test
+    void getAllStudents_WithFields_ShouldProjectAndOnlyReturnThoseFields() throws Exception {
+        // ARRANGE: the projection only loaded the name
+        Student student = new Student();
+        student.setId("1");
+        student.setName("Alice Smith");
+
+        when(studentService.searchStudents(any(StudentFilter.class), any(Pageable.class), eq(Set.of("name"))))
+                .thenReturn(List.of(student));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/students").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is("1")))
+                .andExpect(jsonPath("$[0].name", is("Alice Smith")))
+                .andExpect(jsonPath("$[0].courses").doesNotExist())
+                .andExpect(jsonPath("$[0].phoneNumber").doesNotExist());
+    }
+
+    @Test
+    void getAllStudents_WithUnknownSortField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/students").param("sort", "phoneNumber"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getStudentById_ShouldReturnStudent() throws Exception {
         // ARRANGE
@@ -152,12 +234,6 @@ public class StudentControllerTest {
         request.setPhoneNumber("1234567890");
         request.setDateOfBirth(LocalDate.of(2001, 5, 20));
 
-        // Create existing student that will be found
-        Student existingStudent = new Student();
-        existingStudent.setId(studentId);
-        existingStudent.setName("Alice Old-Name");
-        // Other properties...
-
         // Create updated student that will be returned
         Student updatedStudent = new Student();
         updatedStudent.setId(studentId);
@@ -166,8 +242,7 @@ public class StudentControllerTest {
         updatedStudent.setPhoneNumber(request.getPhoneNumber());
         updatedStudent.setDateOfBirth(request.getDateOfBirth());
 
-        // Mock service calls
-        when(studentService.findById(studentId)).thenReturn(existingStudent);
+        // Mock service call (the student is updated in place, no lookup first)
         when(studentService.editStudent(any(Student.class))).thenReturn(updatedStudent);
 
         // ACT & ASSERT
@@ -185,10 +260,7 @@ public class StudentControllerTest {
     void deleteStudent_WithValidId_ShouldReturnNoContent() throws Exception {
         // ARRANGE
         String studentId = "5";
-        Student existingStudent = createTestStudent(studentId, "Alice Smith",
-                List.of("Biology"), "1234567890");
 
-        when(studentService.findById(studentId)).thenReturn(existingStudent);
         doNothing().when(studentService).deleteStudent(studentId);
 
         // ACT & ASSERT
@@ -216,7 +288,7 @@ public class StudentControllerTest {
         request.setName("Nobody");
         request.setCourses(List.of("None"));
 
-        when(studentService.findById(nonExistentId))
+        when(studentService.editStudent(any(Student.class)))
                 .thenThrow(new RuntimeException("Student not found"));
 
         // ACT & ASSERT
@@ -231,15 +303,120 @@ public class StudentControllerTest {
         // ARRANGE
         String nonExistentId = "999";
 
-        when(studentService.findById(nonExistentId))
-                .thenThrow(new RuntimeException("Student not found"));
+        doThrow(new RuntimeException("Student not found"))
+                .when(studentService).deleteStudent(nonExistentId);
 
         // ACT & ASSERT
         mockMvc.perform(delete("/api/students/{id}", nonExistentId))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void patchStudent_ShouldOnlySendSuppliedFields() throws Exception {
+        // ARRANGE: only the phone number changes
+        UpdateStudentRequest request = new UpdateStudentRequest();
+        request.setPhoneNumber("5555555555");
+        request.setVersion(3L);
+
+        Student updatedStudent = createTestStudent("6", "Alice Smith", List.of("Math"), "5555555555");
+        updatedStudent.setVersion(4L);
 
+        when(studentService.updateStudent("6", Map.of("phoneNumber", "5555555555"), 3L))
+                .thenReturn(updatedStudent);
+
+        // ACT & ASSERT
+        mockMvc.perform(patch("/api/students/{id}", "6")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phoneNumber", is("5555555555")))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    void patchStudent_WithStaleVersion_ShouldReturnConflict() throws Exception {
+        // ARRANGE: someone else updated the student since version 3 was loaded
+        UpdateStudentRequest request = new UpdateStudentRequest();
+        request.setName("Alice Jones");
+        request.setVersion(3L);
+
+        when(studentService.updateStudent("6", Map.of("name", "Alice Jones"), 3L))
+                .thenThrow(new ConflictException("Student was changed by someone else, reload and try again"));
+
+        // ACT & ASSERT
+        mockMvc.perform(patch("/api/students/{id}", "6")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getStudentsByIds_ShouldKeepRequestOrderAndMarkMissingIds() throws Exception {
+        // ARRANGE: "2" doesn't exist
+        Student alice = createTestStudent("1", "Alice Smith", List.of("Math"), "1234567890");
+        Student bob = createTestStudent("3", "Bob Jones", List.of("History"), "0987654321");
+
+        when(studentService.findAllByIds(Set.of("1", "2", "3")))
+                .thenReturn(Map.of("1", alice, "3", bob));
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/students/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("3", "2", "1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id", is("3")))
+                .andExpect(jsonPath("$[0].found", is(true)))
+                .andExpect(jsonPath("$[0].student.name", is("Bob Jones")))
+                .andExpect(jsonPath("$[1].id", is("2")))
+                .andExpect(jsonPath("$[1].found", is(false)))
+                .andExpect(jsonPath("$[2].student.name", is("Alice Smith")));
+    }
+
+    @Test
+    void importStudents_WithNdjson_ShouldReturnCountsAndRowErrors() throws Exception {
+        // ARRANGE: second line has no name
+        String ndjson = "{\"name\":\"Alice Smith\",\"courses\":[\"Math\"]}\n"
+                + "{\"phoneNumber\":\"123\"}\n";
+
+        ImportResult result = new ImportResult();
+        result.setImported(1);
+        result.setFailed(1);
+        result.getErrors().add(new ImportResult.RowError(2, "Name is required"));
+        when(studentImportService.importNdjson(any(InputStream.class))).thenReturn(result);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/students/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].error", is("Name is required")));
+    }
+
+    @Test
+    void exportStudents_AsCsv_ShouldStreamRows() throws Exception {
+        // ARRANGE: the export service writes straight to the response
+        String csv = "name,courses,phoneNumber,dateOfBirth\nAlice Smith,Math;Science,1234567890,2001-04-12\n";
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write(csv.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(studentExportService).exportCsv(any(OutputStream.class));
+
+        // ACT: the body is written asynchronously, after the handler returns
+        MvcResult mvcResult = mockMvc.perform(get("/api/students/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(csv));
+    }
 
 
     // Helper method to create test students
@@ -0,0 +1,102 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.ImportResult;
+import com.example.backend.service.UserImportService;
+import com.example.backend.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Standalone MockMvc skips method security, so the @PreAuthorize guard is checked on a proxied bean
+@SpringJUnitConfig(UserControllerSecurityTest.Config.class)
+public class UserControllerSecurityTest {
+
+    @Configuration
+    @EnableMethodSecurity
+    static class Config {
+        @Bean
+        UserImportService userImportService() {
+            return mock(UserImportService.class);
+        }
+
+        @Bean
+        UserController userController(UserImportService userImportService) {
+            return new UserController(mock(UserService.class), userImportService);
+        }
+    }
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        reset(userImportService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void importUsers_AsAdmin_ShouldRunImport() throws Exception {
+        // ARRANGE
+        authenticateAs("ADMIN");
+        when(userImportService.importUsers(any(InputStream.class))).thenReturn(new ImportResult());
+
+        // ACT & ASSERT
+        assertEquals(200, userController.importUsers(emptyBody()).getStatusCode().value());
+    }
+
+    @Test
+    void importUsers_AsPlainUser_ShouldBeDenied() throws Exception {
+        // ARRANGE
+        authenticateAs("USER");
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> userController.importUsers(emptyBody()));
+        verify(userImportService, never()).importUsers(any(InputStream.class));
+    }
+
+    @Test
+    void importUsers_Unauthenticated_ShouldBeDenied() {
+        assertThrows(AuthenticationCredentialsNotFoundException.class,
+                () -> userController.importUsers(emptyBody()));
+    }
+
+    // Helper methods
+    private void authenticateAs(String... roles) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "alice", null, Arrays.stream(roles).map(SimpleGrantedAuthority::new).toList()));
+    }
+
+    private InputStream emptyBody() {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.backend.controller;
 
 
+import com.example.backend.dto.ImportResult;
 import com.example.backend.model.User;
+import com.example.backend.service.UserImportService;
 import com.example.backend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,14 +15,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,6 +36,9 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserImportService userImportService;
+
     @InjectMocks
     private UserController userController;
 
@@ -51,7 +60,7 @@ public class UserControllerTest {
         );
 
         // Mock service call
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getAllUsers(Set.of("username", "email"))).thenReturn(users);
 
         // ACT & ASSERT: Perform request and check response
         mockMvc.perform(get("/api/users")
@@ -69,7 +78,7 @@ public class UserControllerTest {
     @Test
     void getAllUsers_WithNoUsers_ShouldReturnEmptyList() throws Exception {
         // ARRANGE: Empty user list
-        when(userService.getAllUsers()).thenReturn(Collections.emptyList());
+        when(userService.getAllUsers(Set.of("username", "email"))).thenReturn(Collections.emptyList());
 
         // ACT & ASSERT: Verify empty array response
         mockMvc.perform(get("/api/users")
@@ -78,6 +87,49 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    void getAllUsers_WithFields_ShouldOnlyLoadAndReturnThoseFields() throws Exception {
+        // ARRANGE: a picker only needs names, the projection leaves email unread
+        User user = createTestUser("1", "user1", null);
+        when(userService.getAllUsers(Set.of("username"))).thenReturn(List.of(user));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/users").param("fields", "username"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is("1")))
+                .andExpect(jsonPath("$[0].username", is("user1")))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    void getAllUsers_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importUsers_ShouldReturnCountsAndRowErrors() throws Exception {
+        // ARRANGE: second line's username is taken
+        String ndjson = "{\"username\":\"new1\",\"password\":\"pw\"}\n"
+                + "{\"username\":\"user1\",\"password\":\"pw\"}\n";
+
+        ImportResult result = new ImportResult();
+        result.setImported(1);
+        result.setFailed(1);
+        result.getErrors().add(new ImportResult.RowError(2, "Username already exists"));
+        when(userImportService.importUsers(any(InputStream.class))).thenReturn(result);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].error", is("Username already exists")));
+    }
+
     // Helper method to create test users
     private User createTestUser(String id, String username, String email) {
         User user = new User();
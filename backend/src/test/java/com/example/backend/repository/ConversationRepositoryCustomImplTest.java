@@ -0,0 +1,140 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Conversation;
+import com.example.backend.model.Message;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// Checks the queries sent to Mongo (field names before mapping, id becomes _id), the template itself is mocked
+@ExtendWith(MockitoExtension.class)
+public class ConversationRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ConversationRepositoryCustomImpl repository;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Captor
+    private ArgumentCaptor<Update> update;
+
+    @Test
+    void recordMessage_ShouldOnlyReplaceSenderAndPreviewForNewestMessage() {
+        // ARRANGE
+        LocalDateTime sentAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        Message message = createMessage("bob", "alice", "Hi", sentAt);
+
+        // ACT
+        repository.recordMessage(message);
+
+        // ASSERT: counters and a $max on the time, never moving it backwards
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(Conversation.class));
+        assertEquals(new Document("id", "alice:bob"), query.getValue().getQueryObject());
+        assertEquals(new Document("$setOnInsert", new Document("participants", List.of("bob", "alice")))
+                        .append("$max", new Document("lastTimestamp", sentAt))
+                        .append("$inc", new Document("unreadCounts.alice", 1)),
+                update.getValue().getUpdateObject());
+
+        // Sender and preview only where this message's time is the newest
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Conversation.class));
+        assertEquals(new Document("id", "alice:bob").append("lastTimestamp", sentAt), query.getValue().getQueryObject());
+        assertEquals(new Document("$set", new Document("lastSenderId", "bob").append("lastMessagePreview", "Hi")),
+                update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void recordMessages_ShouldWriteInOrder() {
+        // ARRANGE
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Conversation.class)).thenReturn(bulk);
+        Message message = createMessage("bob", "alice", "Hi", LocalDateTime.of(2026, 1, 1, 12, 0));
+
+        // ACT
+        repository.recordMessages(List.of(message));
+
+        // ASSERT: the conditional update comes after the upsert it depends on
+        InOrder inOrder = inOrder(bulk);
+        inOrder.verify(bulk).upsert(any(Query.class), any(Update.class));
+        inOrder.verify(bulk).updateOne(any(Query.class), any(Update.class));
+        inOrder.verify(bulk).execute();
+    }
+
+    @Test
+    void markRead_ShouldDecrementReadersCounterByCount() {
+        // ACT
+        repository.markRead("bob", "alice", 3);
+
+        // ASSERT: same conversation key from either side, only bob's counter changes
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Conversation.class));
+        assertEquals(new Document("id", "alice:bob"), query.getValue().getQueryObject());
+        assertEquals(new Document("$inc", new Document("unreadCounts.bob", -3L)), update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void markRead_NothingRead_ShouldNotWrite() {
+        repository.markRead("bob", "alice", 0);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void findUnreadCounts_ShouldMapPartnerToReadersCount() {
+        // ARRANGE: unread from bob, and from a note to herself
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(List.of(
+                createConversation(List.of("alice", "bob"), Map.of("alice", 2L, "bob", 5L)),
+                createConversation(List.of("alice", "alice"), Map.of("alice", 1L))));
+
+        // ACT
+        Map<String, Long> counts = repository.findUnreadCounts("alice");
+
+        // ASSERT: only alice's own counters, keyed by who sent them
+        assertEquals(Map.of("bob", 2L, "alice", 1L), counts);
+        verify(mongoTemplate).find(query.capture(), eq(Conversation.class));
+        assertEquals(new Document("participants", "alice").append("unreadCounts.alice", new Document("$gt", 0)),
+                query.getValue().getQueryObject());
+    }
+
+    // Helper methods
+    private Conversation createConversation(List<String> participants, Map<String, Long> unreadCounts) {
+        Conversation conversation = new Conversation();
+        conversation.setParticipants(participants);
+        conversation.setUnreadCounts(unreadCounts);
+        return conversation;
+    }
+
+    private Message createMessage(String senderId, String receiverId, String content, LocalDateTime timestamp) {
+        Message message = new Message();
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setContent(content);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+}
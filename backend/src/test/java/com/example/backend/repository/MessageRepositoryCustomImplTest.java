@@ -0,0 +1,66 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Message;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Checks the queries sent to Mongo (field names before mapping, id becomes _id), the template itself is mocked
+@ExtendWith(MockitoExtension.class)
+public class MessageRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private MessageRepositoryCustomImpl repository;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Captor
+    private ArgumentCaptor<Update> update;
+
+    @Test
+    void markConversationAsRead_ShouldUpdateOnlyUnreadMessagesFromThatSender() {
+        // ARRANGE
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Message.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        // ACT
+        long updated = repository.markConversationAsRead("bob", "alice");
+
+        // ASSERT: one updateMany, limited to bob's unread messages from alice
+        assertEquals(2, updated);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(Message.class));
+        assertEquals(new Document("receiverId", "bob").append("read", false).append("senderId", "alice"),
+                query.getValue().getQueryObject());
+        assertEquals(new Document("$set", new Document("read", true)), update.getValue().getUpdateObject());
+    }
+
+    @Test
+    void markAsReadIfUnread_ShouldOnlyMatchUnreadMessage() {
+        // ACT
+        repository.markAsReadIfUnread("msg1");
+
+        // ASSERT: an already read message doesn't match, so only one caller counts it
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), eq(Message.class));
+        assertEquals(new Document("id", "msg1").append("read", false), query.getValue().getQueryObject());
+        assertEquals(new Document("$set", new Document("read", true)), update.getValue().getUpdateObject());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Student;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+// Checks the projection sent to Mongo (field names before mapping), the template itself is mocked
+@ExtendWith(MockitoExtension.class)
+public class StudentRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private StudentRepositoryCustomImpl repository;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Test
+    void search_WithFields_ShouldIncludeIdAndSelectedFields() {
+        // ACT
+        repository.search(new StudentFilter(), PageRequest.of(0, 10), new LinkedHashSet<>(List.of("name", "courses")));
+
+        // ASSERT
+        verify(mongoTemplate).find(query.capture(), eq(Student.class));
+        assertEquals(new Document("id", 1).append("name", 1).append("courses", 1),
+                query.getValue().getFieldsObject());
+    }
+
+    @Test
+    void search_WithOnlyId_ShouldStillProject() {
+        // ACT: ?fields=id leaves an empty selection
+        repository.search(new StudentFilter(), PageRequest.of(0, 10), Set.of());
+
+        // ASSERT: a projection on id alone, not the whole document
+        verify(mongoTemplate).find(query.capture(), eq(Student.class));
+        assertEquals(new Document("id", 1), query.getValue().getFieldsObject());
+    }
+
+    @Test
+    void search_WithoutFields_ShouldNotProject() {
+        // ACT
+        repository.search(new StudentFilter(), PageRequest.of(0, 10), null);
+
+        // ASSERT
+        verify(mongoTemplate).find(query.capture(), eq(Student.class));
+        assertTrue(query.getValue().getFieldsObject().isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+// Checks the projection sent to Mongo (field names before mapping), the template itself is mocked
+@ExtendWith(MockitoExtension.class)
+public class UserRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private UserRepositoryCustomImpl repository;
+
+    @Captor
+    private ArgumentCaptor<Query> query;
+
+    @Test
+    void findAllWithFields_ShouldIncludeIdAndSelectedFields() {
+        // ACT
+        repository.findAllWithFields(new LinkedHashSet<>(List.of("username", "email")));
+
+        // ASSERT
+        verify(mongoTemplate).find(query.capture(), eq(User.class));
+        assertEquals(new Document("id", 1).append("username", 1).append("email", 1),
+                query.getValue().getFieldsObject());
+    }
+
+    @Test
+    void findAllWithFields_WithOnlyId_ShouldStillProject() {
+        // ACT: ?fields=id leaves an empty selection
+        repository.findAllWithFields(Set.of());
+
+        // ASSERT: a projection on id alone, not the whole document (password hash included)
+        verify(mongoTemplate).find(query.capture(), eq(User.class));
+        assertEquals(new Document("id", 1), query.getValue().getFieldsObject());
+    }
+}
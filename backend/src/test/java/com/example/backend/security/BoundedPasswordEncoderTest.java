@@ -0,0 +1,148 @@
+package com.example.backend.security;
+
+import com.example.backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedPasswordEncoderTest {
+    private MeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        // One bcrypt thread, one waiting slot, cheapest cost
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(4, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encode_WhenQueueIsFull_ShouldRejectWith429() throws Exception {
+        // ARRANGE: the thread is busy and the queue holds one more
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingPassword running = new BlockingPassword(release);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode(running));
+        assertTrue(running.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> encoder.encode(new BlockingPassword(release)));
+        awaitQueued(1);
+
+        // ACT & ASSERT
+        assertThrows(TooManyRequestsException.class, () -> encoder.encode("password"));
+        assertEquals(1.0, meterRegistry.counter("security.bcrypt.rejected").count());
+
+        // Queued work still completes once the thread is free
+        release.countDown();
+        String firstHash = first.get(5, TimeUnit.SECONDS);
+        String secondHash = second.get(5, TimeUnit.SECONDS);
+        assertTrue(encoder.matches("password", firstHash));
+        assertTrue(encoder.matches("password", secondHash));
+    }
+
+    @Test
+    void encodeAll_ShouldReturnHashesInInputOrder() {
+        // ARRANGE
+        BoundedPasswordEncoder parallel = new BoundedPasswordEncoder(4, 4, 16, new SimpleMeterRegistry());
+        List<String> passwords = IntStream.range(0, 20).mapToObj(i -> "password" + i).toList();
+
+        try {
+            // ACT
+            List<String> hashes = parallel.encodeAll(passwords);
+
+            // ASSERT
+            assertEquals(passwords.size(), hashes.size());
+            for (int i = 0; i < passwords.size(); i++) {
+                assertTrue(parallel.matches(passwords.get(i), hashes.get(i)));
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAll_WhenQueueIsFull_ShouldHashOnCallingThread() throws Exception {
+        // ARRANGE: logins hold the thread and fill the queue
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingPassword running = new BlockingPassword(release);
+        CompletableFuture<String> login = CompletableFuture.supplyAsync(() -> encoder.encode(running));
+        assertTrue(running.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode(new BlockingPassword(release)));
+        awaitQueued(1);
+
+        try {
+            // ACT: finishes while the pool is still blocked, so the caller did the work
+            List<String> hashes = encoder.encodeAll(List.of("imported"));
+
+            // ASSERT: not rejected like a login would be
+            assertEquals(1, hashes.size());
+            assertTrue(BCrypt.checkpw("imported", hashes.get(0)));
+            assertEquals(0.0, meterRegistry.counter("security.bcrypt.rejected").count());
+        } finally {
+            release.countDown();
+            login.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // Helper methods
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "bcrypt").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "task was never queued");
+            Thread.sleep(5);
+        }
+    }
+
+    // "password", but hashing it blocks until released, so a bcrypt thread can be held busy
+    private static class BlockingPassword implements CharSequence {
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        BlockingPassword(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String toString() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "password";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import com.example.backend.service.TokenRevocationService;
+import com.example.backend.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthFilterTest {
+    private static final String SECRET =
+            "unsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkey";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000, true, 100, new SimpleMeterRegistry());
+        // Account check off, as in the default configuration
+        UserCheckCache userCheckCache = new UserCheckCache(userDetailsService, false, 60, 100);
+        filter = new JwtAuthFilter(jwtUtil, userCheckCache, revocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validToken_ShouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        // ARRANGE
+        when(revocationService.isRevoked(anyString())).thenReturn(false);
+        MockHttpServletRequest request = bearer(tokenFor("user1", "alice", List.of("USER", "ADMIN")));
+
+        // ACT
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // ASSERT: id, name and roles all come from the token
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+        assertEquals("user1", principal.getId());
+        assertEquals("alice", authentication.getName());
+        assertEquals(List.of("USER", "ADMIN"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void revokedToken_ShouldLeaveRequestUnauthenticated() throws Exception {
+        // ARRANGE
+        when(revocationService.isRevoked(anyString())).thenReturn(true);
+        MockHttpServletRequest request = bearer(tokenFor("user1", "alice", List.of("USER")));
+
+        // ACT
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // ASSERT
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidToken_ShouldLeaveRequestUnauthenticated() throws Exception {
+        // ARRANGE
+        MockHttpServletRequest request = bearer("not-a-jwt");
+        MockFilterChain chain = new MockFilterChain();
+
+        // ACT
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // ASSERT: the request still goes on, just without a user
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(revocationService, userDetailsService);
+    }
+
+    // Helper methods
+    private String tokenFor(String id, String username, List<String> roles) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRoles(roles);
+        return jwtUtil.generateToken(new UserPrincipal(user), id);
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/chat/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
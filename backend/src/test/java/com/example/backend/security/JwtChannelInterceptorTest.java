@@ -0,0 +1,204 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import com.example.backend.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Date;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtChannelInterceptorTest {
+    private static final String SECRET =
+            "unsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkey";
+
+    @Mock
+    private UserCheckCache userCheckCache;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
+    private JwtUtil jwtUtil;
+    private JwtChannelInterceptor interceptor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeEach
+    void setUp() {
+        // Real tokens, so signature checks are part of the test
+        jwtUtil = new JwtUtil(SECRET, 60_000, true, 100, new SimpleMeterRegistry());
+        interceptor = new JwtChannelInterceptor(jwtUtil, userCheckCache, revocationService);
+    }
+
+    @Test
+    void connect_WithValidToken_ShouldSetUserFromClaims() {
+        // ARRANGE
+        when(revocationService.isRevoked(anyString())).thenReturn(false);
+        when(userCheckCache.isActive("alice")).thenReturn(true);
+        StompHeaderAccessor accessor = connect("Bearer " + tokenFor("user1", "alice"));
+
+        // ACT
+        interceptor.preSend(message(accessor), channel);
+
+        // ASSERT: principal comes straight from the token
+        UsernamePasswordAuthenticationToken user = (UsernamePasswordAuthenticationToken) accessor.getUser();
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, user.getPrincipal());
+        assertEquals("user1", principal.getId());
+        assertEquals("alice", user.getName());
+    }
+
+    @Test
+    void connect_WithoutToken_ShouldBeRejected() {
+        StompHeaderAccessor accessor = connect(null);
+
+        assertThrows(BadCredentialsException.class, () -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void connect_WithTamperedToken_ShouldBeRejected() {
+        // ARRANGE: change one character in the middle of the signature
+        String token = tokenFor("user1", "alice");
+        int i = token.length() - 10;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+        StompHeaderAccessor accessor = connect("Bearer " + tampered);
+
+        // ACT & ASSERT
+        assertThrows(BadCredentialsException.class, () -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void connect_WithRevokedToken_ShouldBeRejected() {
+        // ARRANGE
+        when(revocationService.isRevoked(anyString())).thenReturn(true);
+        StompHeaderAccessor accessor = connect("Bearer " + tokenFor("user1", "alice"));
+
+        // ACT & ASSERT
+        assertThrows(BadCredentialsException.class, () -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void subscribe_ToSharedTopic_ShouldBeDenied() {
+        // ARRANGE: authenticated session trying to listen outside its own queue
+        StompHeaderAccessor connect = connectedSession();
+        StompHeaderAccessor accessor = frame(StompCommand.SUBSCRIBE, "/topic/messages", connect);
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void subscribe_ToOwnQueue_ShouldBeAllowed() {
+        // ARRANGE
+        StompHeaderAccessor connect = connectedSession();
+        StompHeaderAccessor accessor = frame(StompCommand.SUBSCRIBE, "/user/queue/messages", connect);
+
+        // ACT & ASSERT
+        assertDoesNotThrow(() -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void subscribe_AfterTokenRevoked_ShouldBeDenied() {
+        // ARRANGE: revoked after the socket connected
+        StompHeaderAccessor connect = connectedSession();
+        when(revocationService.isRevoked(anyString())).thenReturn(true);
+        StompHeaderAccessor accessor = frame(StompCommand.SUBSCRIBE, "/user/queue/messages", connect);
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void subscribe_AfterTokenExpired_ShouldBeDenied() {
+        // ARRANGE
+        StompHeaderAccessor connect = connectedSession();
+        connect.getSessionAttributes().put(JwtChannelInterceptor.TOKEN_EXPIRY_ATTRIBUTE,
+                new Date(System.currentTimeMillis() - 1000));
+        StompHeaderAccessor accessor = frame(StompCommand.SUBSCRIBE, "/user/queue/messages", connect);
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message(accessor), channel));
+    }
+
+    @Test
+    void send_ToAnotherUsersQueue_ShouldBeDenied() {
+        // ARRANGE: a forged push into bob's chat
+        StompHeaderAccessor connect = connectedSession();
+        StompHeaderAccessor toUser = frame(StompCommand.SEND, "/user/bob/queue/messages", connect);
+        StompHeaderAccessor toBroker = frame(StompCommand.SEND, "/queue/messages-user123", connect);
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message(toUser), channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message(toBroker), channel));
+    }
+
+    @Test
+    void send_ToApplicationDestination_ShouldBeAllowed() {
+        // ARRANGE
+        StompHeaderAccessor connect = connectedSession();
+        StompHeaderAccessor accessor = frame(StompCommand.SEND, "/app/chat", connect);
+
+        // ACT & ASSERT
+        assertDoesNotThrow(() -> interceptor.preSend(message(accessor), channel));
+    }
+
+    // Helper methods
+    private String tokenFor(String id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return jwtUtil.generateToken(new UserPrincipal(user), id);
+    }
+
+    private StompHeaderAccessor connect(String authHeader) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authHeader != null) {
+            accessor.setNativeHeader("Authorization", authHeader);
+        }
+        accessor.setSessionAttributes(new HashMap<>());
+        accessor.setLeaveMutable(true);     // So the interceptor sees (and updates) this accessor
+        return accessor;
+    }
+
+    // CONNECT with a valid token for alice, the result holds her session and user
+    private StompHeaderAccessor connectedSession() {
+        when(revocationService.isRevoked(anyString())).thenReturn(false);
+        when(userCheckCache.isActive("alice")).thenReturn(true);
+        StompHeaderAccessor accessor = connect("Bearer " + tokenFor("user1", "alice"));
+        interceptor.preSend(message(accessor), channel);
+        return accessor;
+    }
+
+    // A later frame of the same session
+    private StompHeaderAccessor frame(StompCommand command, String destination, StompHeaderAccessor session) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(session.getUser());
+        accessor.setSessionAttributes(session.getSessionAttributes());
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+
+    private Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
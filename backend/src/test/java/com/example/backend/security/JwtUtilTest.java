@@ -0,0 +1,71 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtUtilTest {
+    private static final String SECRET =
+            "unsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkeyunsafesecretkey";
+
+    @Test
+    void cacheEnabled_ShouldReuseVerifiedClaims() {
+        // ARRANGE
+        JwtUtil jwtUtil = jwtUtil(60_000, true);
+        String token = tokenFor(jwtUtil, "alice");
+
+        // ACT
+        Claims first = jwtUtil.parseClaims(token);
+        Claims second = jwtUtil.parseClaims(token);
+
+        // ASSERT: the second call is served from the cache
+        assertSame(first, second);
+        assertEquals("alice", second.getSubject());
+    }
+
+    @Test
+    void cacheEnabled_ShouldNotServeTokenPastItsExpiry() throws InterruptedException {
+        // ARRANGE: exp is stored in whole seconds, so the token is gone within ~1s
+        JwtUtil jwtUtil = jwtUtil(1_000, true);
+        String token = tokenFor(jwtUtil, "alice");
+        jwtUtil.parseClaims(token);     // Cached while still valid
+        Thread.sleep(1_100);
+
+        // ACT & ASSERT: re-verified and rejected, not answered from the cache
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseClaims(token));
+    }
+
+    @Test
+    void cacheDisabled_ShouldVerifyEveryTime() {
+        // ARRANGE
+        JwtUtil jwtUtil = jwtUtil(60_000, false);
+        String token = tokenFor(jwtUtil, "alice");
+
+        // ACT
+        Claims first = jwtUtil.parseClaims(token);
+        Claims second = jwtUtil.parseClaims(token);
+
+        // ASSERT: each call parsed the token again
+        assertNotSame(first, second);
+        assertEquals(first.getId(), second.getId());
+    }
+
+    // Helper methods
+    private JwtUtil jwtUtil(long expirationMillis, boolean cacheEnabled) {
+        return new JwtUtil(SECRET, expirationMillis, cacheEnabled, 100, new SimpleMeterRegistry());
+    }
+
+    private String tokenFor(JwtUtil jwtUtil, String username) {
+        User user = new User();
+        user.setId("user1");
+        user.setUsername(username);
+        return jwtUtil.generateToken(new UserPrincipal(user), "user1");
+    }
+}
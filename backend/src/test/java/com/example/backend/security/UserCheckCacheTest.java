@@ -0,0 +1,58 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import com.example.backend.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCheckCacheTest {
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Test
+    void disabled_ShouldTrustTokenWithoutLookup() {
+        UserCheckCache cache = new UserCheckCache(userDetailsService, false, 60, 100);
+
+        assertTrue(cache.isActive("alice"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void enabled_ShouldLoadUserOncePerTtl() {
+        // ARRANGE
+        User user = new User();
+        user.setUsername("alice");
+        user.setPassword("hash");
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new UserPrincipal(user));
+        UserCheckCache cache = new UserCheckCache(userDetailsService, true, 60, 100);
+
+        // ACT & ASSERT: second call is answered from the cache
+        assertTrue(cache.isActive("alice"));
+        assertTrue(cache.isActive("alice"));
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void enabled_MissingUser_ShouldBeInactive() {
+        // ARRANGE
+        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("ghost"));
+        UserCheckCache cache = new UserCheckCache(userDetailsService, true, 60, 100);
+
+        // ACT & ASSERT
+        assertFalse(cache.isActive("ghost"));
+        assertFalse(cache.isActive("ghost"));
+        verify(userDetailsService, times(1)).loadUserByUsername("ghost");
+    }
+}
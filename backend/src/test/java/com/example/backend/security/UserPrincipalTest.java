@@ -0,0 +1,26 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UserPrincipalTest {
+
+    @Test
+    void eraseCredentials_ShouldNotChangeUserEntity() {
+        // ARRANGE
+        User user = new User();
+        user.setUsername("alice");
+        user.setPassword("hash");
+        UserPrincipal principal = new UserPrincipal(user);
+
+        // ACT
+        principal.eraseCredentials();
+
+        // ASSERT: only the principal's copy is gone, the loaded User can still be saved as is
+        assertNull(principal.getPassword());
+        assertEquals("hash", user.getPassword());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.backend.service;
+
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.model.Message;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatEventHubTest {
+
+    @Test
+    void hasMessagesSince_ShouldUseTheNewestMessageTime() {
+        // ARRANGE
+        ChatEventHub hub = new ChatEventHub(300);
+        LocalDateTime sentAt = LocalDateTime.now().plusSeconds(5);   // Well after the hub started
+        hub.onMessageSent(new MessageSentEvent(createMessage("user1", "user2", sentAt), "alice", "bob"));
+
+        // ACT & ASSERT: both participants know about it, nobody else does
+        assertTrue(hub.hasMessagesSince("user2", sentAt.minusSeconds(1)));
+        assertTrue(hub.hasMessagesSince("user1", sentAt.minusSeconds(1)));
+        assertFalse(hub.hasMessagesSince("user2", sentAt));
+        assertFalse(hub.hasMessagesSince("user3", sentAt.minusSeconds(1)));
+    }
+
+    @Test
+    void hasMessagesSince_ShouldCompareInMilliseconds() {
+        // ARRANGE: sent with sub-millisecond precision, stored in Mongo as whole milliseconds
+        ChatEventHub hub = new ChatEventHub(300);
+        LocalDateTime sentAt = LocalDateTime.now().plusSeconds(5).withNano(123_456_789);
+        hub.onMessageSent(new MessageSentEvent(createMessage("user1", "user2", sentAt), "alice", "bob"));
+
+        // ACT & ASSERT: the timestamp read back from the database counts as seen
+        assertFalse(hub.hasMessagesSince("user2", sentAt.withNano(123_000_000)));
+        assertTrue(hub.hasMessagesSince("user2", sentAt.withNano(122_000_000)));
+    }
+
+    // Helper method to create test messages
+    private Message createMessage(String senderId, String receiverId, LocalDateTime timestamp) {
+        Message message = new Message();
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Conversation;
+import com.example.backend.model.Message;
+import com.example.backend.repository.ConversationRepository;
+import com.example.backend.repository.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageWriteBuffer writeBuffer;
+
+    @InjectMocks
+    private ChatService chatService;
+
+    @Test
+    void markAllAsRead_ShouldDecrementByWhatWasMarked() {
+        // ARRANGE: bob (receiver) reads what alice sent, 3 of them were still unread
+        when(messageRepository.markConversationAsRead("bob", "alice")).thenReturn(3L);
+
+        // ACT
+        long updated = chatService.markAllAsRead("alice", "bob");
+
+        // ASSERT: bob's counter on the alice/bob conversation goes down by the same 3
+        assertEquals(3, updated);
+        verify(conversationRepository).markRead("bob", "alice", 3);
+    }
+
+    @Test
+    void markAsRead_Unread_ShouldDecrementByOne() {
+        // ARRANGE
+        Message message = createMessage("msg1", "alice", "bob", false);
+        when(messageRepository.markAsReadIfUnread("msg1")).thenReturn(message);
+
+        // ACT
+        Message result = chatService.markAsRead("msg1");
+
+        // ASSERT
+        assertTrue(result.isRead());
+        verify(conversationRepository).markRead("bob", "alice", 1);
+    }
+
+    @Test
+    void markAsRead_AlreadyRead_ShouldNotTouchCounter() {
+        // ARRANGE: lost the race (or read before), nothing transitioned
+        when(messageRepository.markAsReadIfUnread("msg1")).thenReturn(null);
+        when(messageRepository.findById("msg1")).thenReturn(Optional.of(createMessage("msg1", "alice", "bob", true)));
+
+        // ACT
+        chatService.markAsRead("msg1");
+
+        // ASSERT
+        verify(conversationRepository, never()).markRead(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void getChatUsersList_ShouldReturnOtherParticipantAndKeepSelfChat() {
+        // ARRANGE: a chat with bob, and alice's notes to herself
+        when(conversationRepository.findByParticipantsOrderByLastTimestampDesc("alice", PageRequest.of(0, 50)))
+                .thenReturn(List.of(createConversation("alice", "bob"), createConversation("alice", "alice")));
+
+        // ACT
+        List<String> users = chatService.getChatUsersList("alice", 0, 50);
+
+        // ASSERT
+        assertEquals(List.of("bob", "alice"), users);
+    }
+
+    // Helper methods
+    private Conversation createConversation(String... participants) {
+        Conversation conversation = new Conversation();
+        conversation.setParticipants(List.of(participants));
+        return conversation;
+    }
+
+    private Message createMessage(String id, String senderId, String receiverId, boolean read) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setRead(read);
+        return message;
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.TooManyRequestsException;
+import com.example.backend.model.Message;
+import com.example.backend.model.User;
+import com.example.backend.repository.ConversationRepository;
+import com.example.backend.repository.MessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MessageWriteBufferTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserService userService;
+
+    @Captor
+    private ArgumentCaptor<List<Message>> batchCaptor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MessageWriteBuffer buffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    void submit_FullBatch_ShouldBeWrittenWithOneInsert() throws Exception {
+        // ARRANGE: long linger, so only a full batch triggers the write
+        buffer = start(MessageWriteBuffer.Ack.FLUSH, 100, 3, 5000);
+        when(messageRepository.insertUnordered(anyList())).thenReturn(Set.of());
+
+        // ACT
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(buffer.submit(createMessage("m" + i), "alice", "bob"));
+        }
+
+        // ASSERT
+        for (CompletableFuture<Message> future : futures) {
+            assertNotNull(future.get(2, TimeUnit.SECONDS));
+        }
+        verify(messageRepository, times(1)).insertUnordered(batchCaptor.capture());
+        assertEquals(3, batchCaptor.getValue().size());
+    }
+
+    @Test
+    void submit_PartialBatch_ShouldBeWrittenAfterLinger() throws Exception {
+        // ARRANGE
+        buffer = start(MessageWriteBuffer.Ack.FLUSH, 100, 500, 20);
+        when(messageRepository.insertUnordered(anyList())).thenReturn(Set.of());
+
+        // ACT: one message, far from a full batch
+        CompletableFuture<Message> future = buffer.submit(createMessage("m1"), "alice", "bob");
+
+        // ASSERT: written once the linger time is up (summaries follow right after the future completes)
+        assertEquals("m1", future.get(2, TimeUnit.SECONDS).getId());
+        verify(conversationRepository, timeout(2000)).recordMessages(anyList());
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldBeRejectedWith429() throws Exception {
+        // ARRANGE: capacity 1, the writer is stuck in its first insert
+        buffer = start(MessageWriteBuffer.Ack.FLUSH, 1, 1, 0);
+        CountDownLatch insertStarted = new CountDownLatch(1);
+        CountDownLatch releaseInsert = new CountDownLatch(1);
+        when(messageRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            insertStarted.countDown();
+            releaseInsert.await(5, TimeUnit.SECONDS);
+            return Set.of();
+        });
+
+        buffer.submit(createMessage("m1"), "alice", "bob");
+        assertTrue(insertStarted.await(2, TimeUnit.SECONDS));
+        buffer.submit(createMessage("m2"), "alice", "bob");       // Fills the queue
+
+        // ACT & ASSERT
+        assertThrows(TooManyRequestsException.class,
+                () -> buffer.submit(createMessage("m3"), "alice", "bob"));
+        assertEquals(1.0, meterRegistry.counter("chat.write_behind.rejected").count());
+
+        releaseInsert.countDown();
+    }
+
+    @Test
+    void sendMessage_WithFlushAck_ShouldReturnOnceSaved() {
+        // ARRANGE
+        buffer = start(MessageWriteBuffer.Ack.FLUSH, 100, 500, 0);
+        AtomicBoolean saved = new AtomicBoolean();
+        when(messageRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            saved.set(true);
+            return Set.of();
+        });
+        ChatService chatService = chatService();
+
+        // ACT
+        Message message = chatService.sendMessage("user1", "user2", "Hello");
+
+        // ASSERT
+        assertTrue(saved.get());
+        assertFalse(chatService.acknowledgesOnEnqueue());
+        assertNotNull(message.getId());
+    }
+
+    @Test
+    void sendMessage_WithEnqueueAck_ShouldReturnBeforeSaved() throws Exception {
+        // ARRANGE: the write is held until the send has returned
+        buffer = start(MessageWriteBuffer.Ack.ENQUEUE, 100, 500, 0);
+        CountDownLatch releaseInsert = new CountDownLatch(1);
+        CountDownLatch inserted = new CountDownLatch(1);
+        when(messageRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            releaseInsert.await(5, TimeUnit.SECONDS);
+            inserted.countDown();
+            return Set.of();
+        });
+        ChatService chatService = chatService();
+
+        // ACT
+        Message message = chatService.sendMessage("user1", "user2", "Hello");
+
+        // ASSERT: answered with the id while the write is still pending
+        assertTrue(chatService.acknowledgesOnEnqueue());
+        assertNotNull(message.getId());
+        assertEquals(1, inserted.getCount());
+
+        releaseInsert.countDown();
+        assertTrue(inserted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stop_ShouldWriteQueuedMessagesWithoutInterruptingTheInsert() throws Exception {
+        // ARRANGE: long linger, so the messages are still waiting when stop() is called
+        buffer = start(MessageWriteBuffer.Ack.FLUSH, 100, 500, 5000);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(messageRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(100);      // Throws if the writer is interrupted mid-insert
+            interrupted.set(Thread.currentThread().isInterrupted());
+            return Set.of();
+        });
+
+        List<CompletableFuture<Message>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(buffer.submit(createMessage("m" + i), "alice", "bob"));
+        }
+
+        // ACT
+        buffer.stop();
+
+        // ASSERT: everything queued was saved
+        for (CompletableFuture<Message> future : futures) {
+            assertTrue(future.isDone());
+            assertNotNull(future.get());
+        }
+        assertFalse(interrupted.get());
+    }
+
+    @Test
+    void flush_WhenInsertFails_ShouldFailFuturesAndCountThem() {
+        // ARRANGE
+        buffer = start(MessageWriteBuffer.Ack.ENQUEUE, 100, 500, 0);
+        when(messageRepository.insertUnordered(anyList())).thenThrow(new RuntimeException("Database unreachable"));
+
+        // ACT
+        CompletableFuture<Message> future = buffer.submit(createMessage("m1"), "alice", "bob");
+
+        // ASSERT
+        assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.counter("chat.write_behind.failed").count());
+    }
+
+    @Test
+    void flush_WhenSummaryUpdateFailsAfterInsert_ShouldStillCompleteFutures() throws Exception {
+        // ARRANGE: the insert works, the follow-up doesn't
+        buffer = start(MessageWriteBuffer.Ack.FLUSH, 100, 500, 0);
+        when(messageRepository.insertUnordered(anyList())).thenReturn(Set.of());
+        doThrow(new RuntimeException("Summary update failed")).when(conversationRepository).recordMessages(anyList());
+
+        // ACT
+        CompletableFuture<Message> future = buffer.submit(createMessage("m1"), "alice", "bob");
+
+        // ASSERT: the stored message is reported as saved, the follow-up failure is counted apart
+        assertEquals("m1", future.get(2, TimeUnit.SECONDS).getId());
+        verify(conversationRepository, timeout(2000)).recordMessages(anyList());
+        waitForCount("chat.write_behind.post_insert_failed", 1.0);
+        assertEquals(0.0, meterRegistry.counter("chat.write_behind.failed").count());
+    }
+
+    // Helper methods
+    private void waitForCount(String counter, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.counter(counter).count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, meterRegistry.counter(counter).count());
+    }
+
+    private MessageWriteBuffer start(MessageWriteBuffer.Ack ack, int capacity, int batchSize, long lingerMillis) {
+        MessageWriteBuffer writeBuffer = new MessageWriteBuffer(messageRepository, conversationRepository,
+                eventPublisher, meterRegistry, true, ack, capacity, batchSize, lingerMillis);
+        writeBuffer.start();
+        return writeBuffer;
+    }
+
+    private ChatService chatService() {
+        lenient().when(userService.findById(anyString())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            user.setUsername("name-" + invocation.getArgument(0));
+            return user;
+        });
+        return new ChatService(messageRepository, conversationRepository, userService, eventPublisher, buffer);
+    }
+
+    private Message createMessage(String id) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSenderId("user1");
+        message.setReceiverId("user2");
+        message.setContent("Hello");
+        return message;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StudentCsvTest {
+
+    @Test
+    void split_ShouldHandleQuotesAndEmptyFields() {
+        assertEquals(List.of("a", "", "c"), StudentCsv.split("a,,c"));
+        assertEquals(List.of("Smith, Alice", "say \"hi\"", ""), StudentCsv.split("\"Smith, Alice\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void split_WithUnclosedQuote_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> StudentCsv.split("\"Alice,Math"));
+    }
+
+    @Test
+    void toRow_ShouldQuoteOnlyWhereNeededAndSplitBack() {
+        // ARRANGE
+        Student student = createStudent("Smith, \"Al\"", List.of("Math", "Science"), "123", LocalDate.of(2001, 4, 12));
+
+        // ACT
+        String row = StudentCsv.toRow(student);
+
+        // ASSERT
+        assertEquals("\"Smith, \"\"Al\"\"\",Math;Science,123,2001-04-12", row);
+        assertEquals(List.of("Smith, \"Al\"", "Math;Science", "123", "2001-04-12"), StudentCsv.split(row));
+    }
+
+    @Test
+    void toRow_WithLineBreaks_ShouldStayOnOneLine() {
+        // ARRANGE
+        Student student = createStudent("Alice\r\nSmith\nJr", null, null, null);
+
+        // ACT
+        String row = StudentCsv.toRow(student);
+
+        // ASSERT: missing values are empty fields
+        assertFalse(row.contains("\n") || row.contains("\r"));
+        assertEquals(List.of("Alice Smith Jr", "", "", ""), StudentCsv.split(row));
+    }
+
+    @Test
+    void columns_ShouldMapTrimmedNamesToPositions() {
+        Map<String, Integer> columns = StudentCsv.columns("dateOfBirth, name ,courses");
+
+        assertEquals(Map.of("dateOfBirth", 0, "name", 1, "courses", 2), columns);
+    }
+
+    // Helper methods
+    private Student createStudent(String name, List<String> courses, String phoneNumber, LocalDate dateOfBirth) {
+        Student student = new Student();
+        student.setName(name);
+        student.setCourses(courses);
+        student.setPhoneNumber(phoneNumber);
+        student.setDateOfBirth(dateOfBirth);
+        return student;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ImportResult;
+import com.example.backend.model.Student;
+import com.example.backend.repository.StudentRepository;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StudentExportServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)     // As Spring Boot configures it
+            .build();
+    private StudentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new StudentExportService(studentRepository, objectMapper);
+    }
+
+    @Test
+    void exportCsv_ShouldWriteHeaderAndOneRowPerStudent() throws Exception {
+        // ARRANGE
+        when(studentRepository.streamAll()).thenReturn(testStudents().stream());
+
+        // ACT
+        String csv = export(true);
+
+        // ASSERT
+        assertEquals("""
+                name,courses,phoneNumber,dateOfBirth
+                "Smith, Alice",Math;Science,123,2001-04-12
+                Bob Jr,,,
+                """, csv);
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // ARRANGE
+        when(studentRepository.streamAll()).thenReturn(testStudents().stream());
+
+        // ACT
+        String[] lines = export(false).split("\n");
+
+        // ASSERT
+        assertEquals(2, lines.length);
+        assertEquals("Smith, Alice", objectMapper.readTree(lines[0]).get("name").asText());
+        assertEquals("2001-04-12", objectMapper.readTree(lines[0]).get("dateOfBirth").asText());
+        assertEquals("s2", objectMapper.readTree(lines[1]).get("id").asText());
+    }
+
+    @Test
+    void exportCsv_ShouldImportBack() throws Exception {
+        // ARRANGE
+        when(studentRepository.streamAll()).thenReturn(testStudents().stream());
+        List<Student> imported = new ArrayList<>();
+        when(studentRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            imported.addAll(invocation.getArgument(0));
+            return Map.of();
+        });
+        StudentImportService importService = new StudentImportService(studentRepository, objectMapper, 10);
+
+        // ACT
+        ImportResult result = importService.importCsv(
+                new ByteArrayInputStream(export(true).getBytes(StandardCharsets.UTF_8)));
+
+        // ASSERT: same values, the line break became a space
+        assertEquals(2, result.getImported());
+        assertEquals("Smith, Alice", imported.get(0).getName());
+        assertEquals(List.of("Math", "Science"), imported.get(0).getCourses());
+        assertEquals("123", imported.get(0).getPhoneNumber());
+        assertEquals(LocalDate.of(2001, 4, 12), imported.get(0).getDateOfBirth());
+        assertEquals("Bob Jr", imported.get(1).getName());
+    }
+
+    // Helper methods
+    private String export(boolean csv) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (csv) {
+            exportService.exportCsv(out);
+        } else {
+            exportService.exportNdjson(out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<Student> testStudents() {
+        Student alice = new Student();
+        alice.setId("s1");
+        alice.setName("Smith, Alice");
+        alice.setCourses(List.of("Math", "Science"));
+        alice.setPhoneNumber("123");
+        alice.setDateOfBirth(LocalDate.of(2001, 4, 12));
+
+        Student bob = new Student();
+        bob.setId("s2");
+        bob.setName("Bob\nJr");
+        return List.of(alice, bob);
+    }
+}
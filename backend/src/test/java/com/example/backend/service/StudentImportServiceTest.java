@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ImportResult;
+import com.example.backend.model.Student;
+import com.example.backend.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StudentImportServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    private StudentImportService importService;
+
+    // Every inserted student, in insert order
+    private final List<Student> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new StudentImportService(studentRepository, Jackson2ObjectMapperBuilder.json().build(), 2);
+    }
+
+    @Test
+    void importCsv_WithBomAndReorderedColumns_ShouldReadEveryField() throws Exception {
+        // ARRANGE
+        recordInserts(Map.of());
+        String csv = "\uFEFFdateOfBirth,name,courses\n2001-04-12,\"Smith, Alice\",Math; Science\n";
+
+        // ACT
+        ImportResult result = importService.importCsv(stream(csv));
+
+        // ASSERT
+        assertEquals(1, result.getImported());
+        Student student = inserted.get(0);
+        assertEquals("Smith, Alice", student.getName());
+        assertEquals(List.of("Math", "Science"), student.getCourses());
+        assertEquals(LocalDate.of(2001, 4, 12), student.getDateOfBirth());
+    }
+
+    @Test
+    void importCsv_ShouldReportRowsByFileLine() throws Exception {
+        // ARRANGE: batches of two, the second row of the first batch fails to insert
+        recordInserts(Map.of(1, "Duplicate"));
+        String csv = """
+                name,dateOfBirth
+                Alice,2001-01-01
+                ,2001-01-01
+                Bob,2001-01-01
+
+                Carol,not-a-date
+                Dave,2001-01-01
+                """;
+
+        // ACT
+        ImportResult result = importService.importCsv(stream(csv));
+
+        // ASSERT: line numbers count the header and the blank line
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(
+                new ImportResult.RowError(3, "Name is required"),
+                new ImportResult.RowError(4, "Duplicate"),
+                new ImportResult.RowError(6, "Invalid dateOfBirth: not-a-date")), result.getErrors());
+    }
+
+    @Test
+    void importCsv_WithoutNameColumn_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(stream("courses\nMath\n")));
+        verifyNoInteractions(studentRepository);
+    }
+
+    @Test
+    void importNdjson_WithBom_ShouldReadFirstLine() throws Exception {
+        // ARRANGE
+        recordInserts(Map.of());
+        String ndjson = "\uFEFF{\"name\":\"Alice\",\"dateOfBirth\":\"2001-04-12\"}\n{bad\n";
+
+        // ACT
+        ImportResult result = importService.importNdjson(stream(ndjson));
+
+        // ASSERT
+        assertEquals(1, result.getImported());
+        assertEquals("Alice", inserted.get(0).getName());
+        assertEquals(List.of(new ImportResult.RowError(2, "Invalid JSON")), result.getErrors());
+    }
+
+    // Helper methods
+    // Records the inserted students, the first batch fails with the given positions
+    private void recordInserts(Map<Integer, String> firstBatchFailures) {
+        when(studentRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            boolean firstBatch = inserted.isEmpty();
+            List<Student> batch = invocation.getArgument(0);
+            inserted.addAll(batch);
+            return firstBatch ? firstBatchFailures : Map.of();
+        });
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
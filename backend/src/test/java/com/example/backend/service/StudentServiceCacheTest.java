@@ -0,0 +1,162 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Student;
+import com.example.backend.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The cache annotations only work through Spring's proxy, so StudentService runs in a small context
+@SpringJUnitConfig(StudentServiceCacheTest.Config.class)
+public class StudentServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(StudentService.CACHE_BY_ID, StudentService.CACHE_BY_NAME);
+        }
+
+        @Bean
+        StudentRepository studentRepository() {
+            return mock(StudentRepository.class);
+        }
+
+        @Bean
+        StudentService studentService(StudentRepository studentRepository) {
+            return new StudentService(studentRepository);
+        }
+    }
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        reset(studentRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void findById_ShouldHitRepositoryOnce() {
+        // ARRANGE
+        when(studentRepository.findById("s1")).thenReturn(Optional.of(createStudent("s1", "Alice")));
+
+        // ACT
+        studentService.findById("s1");
+        studentService.findById("s1");
+
+        // ASSERT
+        verify(studentRepository, times(1)).findById("s1");
+    }
+
+    @Test
+    void findById_NotFound_ShouldNotBeCached() {
+        // ARRANGE
+        when(studentRepository.findById("missing")).thenReturn(Optional.empty());
+
+        // ACT
+        assertThrows(RuntimeException.class, () -> studentService.findById("missing"));
+        assertThrows(RuntimeException.class, () -> studentService.findById("missing"));
+
+        // ASSERT: asked again, so a student created later is found
+        verify(studentRepository, times(2)).findById("missing");
+    }
+
+    @Test
+    void editStudent_ShouldRefreshIdCacheAndEvictNames() {
+        // ARRANGE: both caches hold the old student
+        cacheOldAlice();
+        when(studentRepository.updateFields(eq("s1"), anyMap(), any())).thenReturn(createStudent("s1", "Alicia"));
+
+        // ACT
+        studentService.editStudent(createStudent("s1", "Alicia"));
+
+        // ASSERT
+        assertNewNameServedAndOldNameEvicted();
+    }
+
+    @Test
+    void updateStudent_ShouldRefreshIdCacheAndEvictNames() {
+        // ARRANGE
+        cacheOldAlice();
+        when(studentRepository.updateFields(eq("s1"), anyMap(), any())).thenReturn(createStudent("s1", "Alicia"));
+
+        // ACT
+        studentService.updateStudent("s1", Map.of("name", "Alicia"), null);
+
+        // ASSERT
+        assertNewNameServedAndOldNameEvicted();
+    }
+
+    @Test
+    void deleteStudent_ShouldEvictIdAndNameCaches() {
+        // ARRANGE
+        cacheOldAlice();
+        when(studentRepository.removeById("s1")).thenReturn(true);
+
+        // ACT
+        studentService.deleteStudent("s1");
+
+        // ASSERT: both lookups go back to the repository, which no longer has the student
+        when(studentRepository.findById("s1")).thenReturn(Optional.empty());
+        when(studentRepository.findByName("Alice")).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> studentService.findById("s1"));
+        assertThrows(RuntimeException.class, () -> studentService.findByName("Alice"));
+        verify(studentRepository, times(2)).findById("s1");
+        verify(studentRepository, times(2)).findByName("Alice");
+    }
+
+    // Helper methods
+    private void cacheOldAlice() {
+        Student alice = createStudent("s1", "Alice");
+        when(studentRepository.findById("s1")).thenReturn(Optional.of(alice));
+        when(studentRepository.findByName("Alice")).thenReturn(Optional.of(alice));
+        studentService.findById("s1");
+        studentService.findByName("Alice");
+    }
+
+    private void assertNewNameServedAndOldNameEvicted() {
+        // By id: the updated student, straight from the cache
+        assertEquals("Alicia", studentService.findById("s1").getName());
+        verify(studentRepository, times(1)).findById("s1");
+
+        // By name: the old entry is gone, so the repository is asked again
+        studentService.findByName("Alice");
+        verify(studentRepository, times(2)).findByName("Alice");
+    }
+
+    private Student createStudent(String id, String name) {
+        Student student = new Student();
+        student.setId(id);
+        student.setName(name);
+        return student;
+    }
+}
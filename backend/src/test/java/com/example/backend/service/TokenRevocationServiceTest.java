@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import com.example.backend.model.RevokedToken;
+import com.example.backend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(revokedTokenRepository);
+    }
+
+    @Test
+    void bloomFilter_ShouldContainEveryValuePut() {
+        // ARRANGE
+        TokenRevocationService.BloomFilter filter = new TokenRevocationService.BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        // ACT & ASSERT: no false negatives, and false positives stay near the configured rate
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void isRevoked_NotInFilter_ShouldNotQueryDatabase() {
+        assertFalse(revocationService.isRevoked("jti-1"));
+        verify(revokedTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void isRevoked_RevokedJti_ShouldBeConfirmedByDatabase() {
+        // ARRANGE
+        revocationService.revoke("jti-1", inOneMinute());
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        // ACT & ASSERT
+        assertTrue(revocationService.isRevoked("jti-1"));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void isRevoked_FilterHitNotInDatabase_ShouldNotBeRevoked() {
+        // ARRANGE: the filter says maybe (as with a false positive), the database says no
+        revocationService.revoke("jti-1", inOneMinute());
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(false);
+
+        // ACT & ASSERT
+        assertFalse(revocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void sync_ShouldPickUpTokensRevokedElsewhere() {
+        // ARRANGE: revoked by another instance, only in the database
+        when(revokedTokenRepository.findAllIds())
+                .thenReturn(List.of(new RevokedToken("jti-2", Instant.now().plusSeconds(60))));
+        when(revokedTokenRepository.existsById("jti-2")).thenReturn(true);
+
+        // ACT
+        revocationService.sync();
+
+        // ASSERT
+        assertTrue(revocationService.isRevoked("jti-2"));
+    }
+
+    @Test
+    void revoke_ExpiredToken_ShouldBeIgnored() {
+        revocationService.revoke("jti-1", new Date(System.currentTimeMillis() - 1000));
+
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+        assertFalse(revocationService.isRevoked("jti-1"));
+    }
+
+    // Helper methods
+    private Date inOneMinute() {
+        return new Date(System.currentTimeMillis() + 60_000);
+    }
+}
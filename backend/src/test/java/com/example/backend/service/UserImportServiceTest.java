@@ -0,0 +1,92 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ImportResult;
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    private UserImportService importService;
+
+    // Usernames of each inserted batch, copied since the service reuses its lists
+    private final List<List<String>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportService(userRepository, passwordEncoder, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void importUsers_ShouldRejectBadRowsAndMapInsertFailuresToLines() throws Exception {
+        // ARRANGE: batches of two, second user of the first batch is taken
+        when(passwordEncoder.encodeAll(anyList())).thenAnswer(invocation -> {
+            List<? extends CharSequence> raw = invocation.getArgument(0);
+            return raw.stream().map(password -> "hash-" + password).toList();
+        });
+        when(userRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            batch.forEach(user -> assertEquals("hash-pw", user.getPassword()));
+            insertedBatches.add(batch.stream().map(User::getUsername).toList());
+            return insertedBatches.size() == 1 ? Map.of(1, "Username already exists") : Map.of();
+        });
+        String ndjson = """
+                {"username":"a","password":"pw"}
+                not json
+
+                {"username":"nopassword"}
+                {"username":"b","password":"pw"}
+                {"username":"c","password":"pw"}
+                """;
+
+        // ACT
+        ImportResult result = importService.importUsers(stream(ndjson));
+
+        // ASSERT: errors in file order, the insert failure reported at b's line
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), insertedBatches);
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(
+                new ImportResult.RowError(2, "Invalid JSON"),
+                new ImportResult.RowError(4, "Password is required"),
+                new ImportResult.RowError(5, "Username already exists")), result.getErrors());
+    }
+
+    @Test
+    void importUsers_WithoutUsername_ShouldRejectRow() throws Exception {
+        // ACT
+        ImportResult result = importService.importUsers(stream("{\"password\":\"pw\"}\n"));
+
+        // ASSERT: nothing to insert
+        assertEquals(0, result.getImported());
+        assertEquals(List.of(new ImportResult.RowError(1, "Username is required")), result.getErrors());
+    }
+
+    // Helper methods
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
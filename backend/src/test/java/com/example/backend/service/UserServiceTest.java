@@ -0,0 +1,62 @@
+package com.example.backend.service;
+
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void registerUser_ShouldStoreHashedPassword() {
+        // ARRANGE
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(userRepository.insert(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // ACT
+        User saved = userService.registerUser(createUser("alice", "secret"));
+
+        // ASSERT
+        assertEquals("hash", saved.getPassword());
+    }
+
+    @Test
+    void registerUser_WithTakenUsername_ShouldReportIt() {
+        // ARRANGE: the unique index rejects the insert
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(userRepository.insert(any(User.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+        // ACT & ASSERT
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> userService.registerUser(createUser("alice", "secret")));
+        assertEquals("Username already exists", e.getMessage());
+    }
+
+    // Helper methods
+    private User createUser(String username, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(password);
+        return user;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.websocket;
+
+import com.example.backend.dto.MessageResponse;
+import com.example.backend.event.MessageSentEvent;
+import com.example.backend.model.Message;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatMessagePublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private ChatMessagePublisher publisher;
+
+    @Test
+    void onMessageSent_ShouldPushToReceiverAndSender() {
+        // ARRANGE
+        MessageSentEvent event = new MessageSentEvent(createMessage("user1", "user2"), "alice", "bob");
+
+        // ACT
+        publisher.onMessageSent(event);
+
+        // ASSERT: both users' queues get the same DTO, usernames filled in from the event
+        ArgumentCaptor<MessageResponse> sent = ArgumentCaptor.forClass(MessageResponse.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("bob"), eq(ChatMessagePublisher.MESSAGE_QUEUE), sent.capture());
+        verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq(ChatMessagePublisher.MESSAGE_QUEUE), any(MessageResponse.class));
+
+        MessageResponse response = sent.getValue();
+        assertEquals("m1", response.getId());
+        assertEquals("alice", response.getSenderUsername());
+        assertEquals("bob", response.getReceiverUsername());
+        assertEquals("Hello", response.getContent());
+    }
+
+    @Test
+    void onMessageSent_ToSelf_ShouldPushOnce() {
+        // ARRANGE
+        MessageSentEvent event = new MessageSentEvent(createMessage("user1", "user1"), "alice", "alice");
+
+        // ACT
+        publisher.onMessageSent(event);
+
+        // ASSERT
+        verify(messagingTemplate, times(1))
+                .convertAndSendToUser(eq("alice"), eq(ChatMessagePublisher.MESSAGE_QUEUE), any(MessageResponse.class));
+    }
+
+    // Helper method to create test messages
+    private Message createMessage(String senderId, String receiverId) {
+        Message message = new Message();
+        message.setId("m1");
+        message.setSenderId(senderId);
+        message.setReceiverId(receiverId);
+        message.setContent("Hello");
+        message.setTimestamp(LocalDateTime.now());
+        return message;
+    }
+}
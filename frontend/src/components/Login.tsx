@@ -38,7 +38,7 @@ const Login = () => {
                 id: response.userId,
                 username: response.username,
                 email: '' // Backend doesn't return email in the login response
-            });
+            }, response.refreshToken);
 
             navigate('/students');
         } catch (err) {
@@ -13,8 +13,8 @@ const ChatPage: React.FC = () => {
     const navigate = useNavigate();
 
     // Update the auth context and navigate to login screen on logout
-    const handleLogout = () => {
-        logout();
+    const handleLogout = async () => {
+        await logout();
         navigate('/login');
     };
 
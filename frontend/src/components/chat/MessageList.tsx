@@ -3,7 +3,7 @@ import { useChat } from '../../context/ChatContext';
 import { useAuth } from '../../context/AuthContext';
 
 const MessageList: React.FC = () => {
-    const { messages, selectedUser } = useChat();
+    const { messages, selectedUser, hasOlderMessages, loadOlderMessages } = useChat();
     const { user} = useAuth();
 
     if (!selectedUser) {
@@ -32,6 +32,11 @@ const MessageList: React.FC = () => {
             </div>
 
             <div className="messages">
+                {hasOlderMessages && (
+                    <button className="load-older" onClick={loadOlderMessages}>
+                        Load older messages
+                    </button>
+                )}
                 {messages.length === 0 ? (
                     <p className="no-messages">No messages yet. Say hello!</p>
                 ) : (
@@ -2,7 +2,7 @@ import React from 'react';
 import { useChat } from '../../context/ChatContext';
 
 const UserList: React.FC = () => {
-    const { users, selectedUser, selectUser, unreadCounts } = useChat();
+    const { users, hasMoreUsers, loadMoreUsers, selectedUser, selectUser, unreadCounts } = useChat();
 
     // Kind of gross conditional formatting
     // But basically:
@@ -33,6 +33,11 @@ const UserList: React.FC = () => {
                     ))}
                 </ul>
             )}
+            {hasMoreUsers && (
+                <button className="load-older" onClick={loadMoreUsers}>
+                    Show more conversations
+                </button>
+            )}
         </div>
     );
 };
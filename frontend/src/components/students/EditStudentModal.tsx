@@ -23,7 +23,8 @@ function EditStudentModal({student, isOpen, onClose, onSubmit }: EditStudentModa
                 name: student.name,
                 courses: student.courses,
                 phoneNumber: student.phoneNumber,
-                dateOfBirth: student.dateOfBirth
+                dateOfBirth: student.dateOfBirth,
+                version: student.version
             });
         }
     }, [student]);
@@ -1,6 +1,7 @@
 import { useState, useEffect } from 'react';
+import axios from 'axios';
 import { Student, CreateStudentRequest, UpdateStudentRequest } from '../../types/student';
-import { studentService } from '../../services/studentApi';
+import { studentService, STUDENT_PAGE_SIZE } from '../../services/studentApi';
 import StudentTable from './StudentTable';
 import AddStudentModal from './AddStudentModal';
 import EditStudentModal from './EditStudentModal';
@@ -14,6 +15,8 @@ function StudentPage() {
     
 
     const [students, setStudents] = useState<Student[]>([]);
+    const [page, setPage] = useState(0);
+    const [total, setTotal] = useState(0);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState<string | null> (null);
 
@@ -22,16 +25,24 @@ function StudentPage() {
     const [isEditModalOpen, setIsEditModalOpen] = useState(false);
     const [currentStudent, setCurrentStudent] = useState<Student | null>(null);
 
-    // Load students on component mount
+    const pageCount = Math.max(1, Math.ceil(total / STUDENT_PAGE_SIZE));
+
+    // Load the current page on mount and whenever the page changes
     useEffect(() => {
         fetchStudents();
-    }, []);
+    }, [page]);
 
     const fetchStudents = async () => {
         try {
             setLoading(true);
-            const data = await studentService.getAll();
-            setStudents(data);
+            const data = await studentService.getPage(page);
+            // Past the end (e.g. the last student of the last page was deleted), go back a page
+            if (data.students.length === 0 && page > 0) {
+                setPage(Math.max(0, Math.ceil(data.total / STUDENT_PAGE_SIZE) - 1));
+                return;
+            }
+            setStudents(data.students);
+            setTotal(data.total);
             setError(null);
         } catch (err) {
             setError("Failed to fetch students");
@@ -66,7 +77,13 @@ function StudentPage() {
             fetchStudents();
             setIsEditModalOpen(false);
         } catch (err) {
-            setError("failed to update student");
+            // 409: someone else saved this student first, show their version
+            if (axios.isAxiosError(err) && err.response?.status === 409) {
+                setError("student was changed by someone else, reloaded the latest version");
+                fetchStudents();
+            } else {
+                setError("failed to update student");
+            }
             console.error(err);
         }
     };
@@ -85,7 +102,7 @@ function StudentPage() {
 
     // Update auth context and navigate to login screen on logout
     const handleLogout = async () => {
-        logout();
+        await logout();
         navigate('/login');
     };
 
@@ -117,6 +134,12 @@ function StudentPage() {
                 />
             )}
 
+            <div className="pager">
+                <button onClick={() => setPage(page - 1)} disabled={loading || page === 0}>Previous</button>
+                <span>Page {page + 1} of {pageCount} ({total} students)</span>
+                <button onClick={() => setPage(page + 1)} disabled={loading || page + 1 >= pageCount}>Next</button>
+            </div>
+
             <AddStudentModal
                 isOpen={isAddModalOpen}
                 onClose={() => setIsAddModalOpen(false)}
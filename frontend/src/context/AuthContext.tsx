@@ -1,5 +1,6 @@
 import React, { createContext, useState, useEffect, ReactNode } from 'react';
 import { User } from '../types/auth';
+import { authService } from '../services/api';
 
 /*
     Share authentication status globally using react context,
@@ -12,8 +13,8 @@ interface AuthContextType {
     isAuthenticated: boolean;
     user: User | null;
     token: string | null;
-    login: (token: string, user: User) => void;
-    logout: () => void;
+    login: (token: string, user: User, refreshToken?: string) => void;
+    logout: () => Promise<void>;
 }
 
 // Create the context with a default value
@@ -22,7 +23,7 @@ export const AuthContext = createContext<AuthContextType>({
     user: null,
     token: null,
     login: () => {},
-    logout: () => {},
+    logout: async () => {},
 });
 
 interface AuthProviderProps  {
@@ -48,9 +49,12 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     }, []);
 
     // Login function to set auth state
-    const login = (token: string, user: User) => {
+    const login = (token: string, user: User, refreshToken?: string) => {
         localStorage.setItem('token', token);
         localStorage.setItem('user', JSON.stringify(user));
+        if (refreshToken) {
+            localStorage.setItem('refreshToken', refreshToken);
+        }
 
         setToken(token);
         setUser(user);
@@ -58,9 +62,13 @@ export const AuthProvider: React.FC<AuthProviderProps> = ({ children }) => {
     }
 
     // Logout function to clear auth state
-    const logout = () => {
+    const logout = async () => {
+        // Revoke the session on the backend too (best effort), while the tokens are still stored
+        await authService.logout().catch(() => {});
+
         localStorage.removeItem('token');
         localStorage.removeItem('user');
+        localStorage.removeItem('refreshToken');
 
         setToken(null);
         setUser(null);
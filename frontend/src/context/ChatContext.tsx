@@ -1,31 +1,39 @@
-import React, { createContext, useState, useEffect, useContext } from 'react';
+import React, { createContext, useState, useEffect, useContext, useRef } from 'react';
 import { Message, ChatUser } from '../types/chat';
-import { chatService } from '../services/chatApi';
+import { chatService, CONVERSATION_PAGE_SIZE, CHAT_USERS_PAGE_SIZE } from '../services/chatApi';
 import { userService } from '../services/userApi';
 import { useAuth } from './AuthContext';
 
 // Define format
 interface ChatContextType {
     users: ChatUser[];
+    hasMoreUsers: boolean;
     allUsers: ChatUser[];
     selectedUser: ChatUser | null;
     messages: Message[];
+    hasOlderMessages: boolean;
     unreadCounts: Map<string, number>;
     selectUser: (user: ChatUser) => void;
     sendMessage: (content: string) => Promise<void>;
     refreshMessages: () => Promise<void>;
+    loadOlderMessages: () => Promise<void>;
+    loadMoreUsers: () => Promise<void>;
 }
 
 // Create the context with a default value
 const ChatContext = createContext<ChatContextType>({
     users: [],
+    hasMoreUsers: false,
     allUsers: [],
     selectedUser: null,
     messages: [],
+    hasOlderMessages: false,
     unreadCounts: new Map(),
     selectUser: () => {},
     sendMessage: async () => {},
-    refreshMessages: async () => {}
+    refreshMessages: async () => {},
+    loadOlderMessages: async () => {},
+    loadMoreUsers: async () => {}
 });
 
 
@@ -33,9 +41,12 @@ const ChatContext = createContext<ChatContextType>({
 export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }) => {
     const { user: currentUser } = useAuth();                                            
     const [users, setUsers] = useState<ChatUser[]>([]);                                 // List of users that have chatted with current user
+    const [hasMoreUsers, setHasMoreUsers] = useState<boolean>(false);                   // Last page was full, there may be more
+    const chatUserPages = useRef<number>(1);                                            // Pages of chat users shown so far
     const [allUsers, setAllUsers] = useState<ChatUser[]>([]);                           // List of ALL users that are in the system
     const [selectedUser, setSelectedUser] = useState<ChatUser | null>(null);            // Selected user
     const [messages, setMessages] = useState<Message[]>([]);                            // List of messages
+    const [hasOlderMessages, setHasOlderMessages] = useState<boolean>(false);           // A full page came back, there may be more
     const [unreadCounts, setUnreadCounts] = useState<Map<string, number>>(new Map());   // Read message count
 
     // The toISOString method adds a letter to the end denoting timezone
@@ -50,7 +61,7 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
             // However, there might be a problem if userbase becomes massive and there is 3 second polling....
             loadChatUsers();
             loadAllChatUsers();
-            loadUnreadMessages();
+            loadUnreadCounts();
 
             // Set up polling for new messages
             const interval = setInterval(pollMessages, 3000); // 3 seconds between poll?
@@ -59,16 +70,39 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
     }, [currentUser]); // Run every time current user changes
 
 
-    // Load ONLY users that have chatted with current user
+    // Load ONLY users that have chatted with current user (as many pages as are shown)
     const loadChatUsers = async () => {
         try {
-            const chatUsers = await chatService.getChatUsers();
+            const chatUsers: ChatUser[] = [];
+            let lastPageFull = false;
+            for (let page = 0; page < chatUserPages.current; page++) {
+                const pageUsers = await chatService.getChatUsers(page);
+                chatUsers.push(...pageUsers);
+                lastPageFull = pageUsers.length === CHAT_USERS_PAGE_SIZE;
+                if (!lastPageFull) break;
+            }
             setUsers(chatUsers);
+            setHasMoreUsers(lastPageFull);
         } catch (error) {
             console.error('Failed to load chat users', error);
         }
     };
 
+    // Show the next page of chat users
+    const loadMoreUsers = async () => {
+        try {
+            const pageUsers = await chatService.getChatUsers(chatUserPages.current);
+            chatUserPages.current += 1;
+            setUsers(previous => [
+                ...previous,
+                ...pageUsers.filter(user => !previous.some(existing => existing.id === user.id))
+            ]);
+            setHasMoreUsers(pageUsers.length === CHAT_USERS_PAGE_SIZE);
+        } catch (error) {
+            console.error('Failed to load more chat users', error);
+        }
+    };
+
     // Load ALL users (for initial chat dropdown)
     const loadAllChatUsers = async () => {
         try {
@@ -79,21 +113,13 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
         }
     };
 
-    // Load unread messages and update counts
-    const loadUnreadMessages = async () => {
+    // Load unread counts per sender
+    const loadUnreadCounts = async () => {
         try {
-            const unreadMessages = await chatService.getUnreadMessages();   // API call for unread messages
-
-            // Count unread messages per sender
-            const counts = new Map<string, number>();
-            unreadMessages.forEach(msg => {
-                const count = counts.get(msg.senderId) || 0;
-                counts.set(msg.senderId, count + 1);
-            });
-            setUnreadCounts(counts);
-
+            const unread = await chatService.getUnreadCounts();     // Only counts, no messages are loaded
+            setUnreadCounts(new Map(Object.entries(unread.byUser)));
         } catch (error) {
-            console.error('Failed to load unread messages', error);
+            console.error('Failed to load unread counts', error);
         }
     };
 
@@ -116,7 +142,7 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
                     }
 
                     // Update unread counts
-                    loadUnreadMessages();
+                    loadUnreadCounts();
             }
         } catch (error) {
             console.error('Failed to poll messages', error);
@@ -128,11 +154,12 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
         setSelectedUser(user);  // Update state of selected user
         if (user) {
             try {
-                const conversation = await chatService.getConversation(user.id);    // Use api to update messages/conversation state
+                const conversation = await chatService.getConversation(user.id);    // Latest page of the conversation
                 setMessages(conversation);
+                setHasOlderMessages(conversation.length === CONVERSATION_PAGE_SIZE);
                 
                 // Update unread counts
-                loadUnreadMessages();
+                loadUnreadCounts();
 
                 // Also refresh chat users list to include this user if they're not already there
                 loadChatUsers();
@@ -141,6 +168,7 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
             }
         } else {
             setMessages([]); // No user selected, so messages are blank
+            setHasOlderMessages(false);
         }
     };
 
@@ -172,24 +200,50 @@ export const ChatProvider: React.FC<{children: React.ReactNode}> = ({ children }
         if (!selectedUser) return;
 
         try {
-            const conversation = await chatService.getConversation(selectedUser.id);    // Just API call and update the message state
-            setMessages(conversation);
+            // Reload the latest page (new messages, updated read status) and keep any older pages already loaded
+            const latest = await chatService.getConversation(selectedUser.id);
+            if (latest.length === 0) {
+                setMessages([]);
+                return;
+            }
+            const latestIds = new Set(latest.map(msg => msg.id));
+            setMessages(previous => [
+                ...previous.filter(msg => !latestIds.has(msg.id) && msg.timestamp < latest[0].timestamp),
+                ...latest
+            ]);
         } catch (error) {
             console.error('Failed to refresh messages', error);
         }
     };
 
+    // Load the page of messages before the oldest one shown
+    const loadOlderMessages = async () => {
+        if (!selectedUser || messages.length === 0) return;
+
+        try {
+            const older = await chatService.getConversation(selectedUser.id, messages[0].id);
+            setMessages(previous => [...older, ...previous]);
+            setHasOlderMessages(older.length === CONVERSATION_PAGE_SIZE);
+        } catch (error) {
+            console.error('Failed to load older messages', error);
+        }
+    };
+
     return (
         <ChatContext.Provider
             value={{
                 users,
+                hasMoreUsers,
                 allUsers,
                 selectedUser,
                 messages,
+                hasOlderMessages,
                 unreadCounts,
                 selectUser,
                 sendMessage,
                 refreshMessages,
+                loadOlderMessages,
+                loadMoreUsers,
             }}
         >
             {children}
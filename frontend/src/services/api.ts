@@ -23,8 +23,10 @@ export const authService = {
     },
 
     logout: async (): Promise<void> => {
-        // Clear local storage (actual removal happens in context)
-        // No backend call necessary
-        return Promise.resolve();
+        // Revokes the current token and refresh token on the backend
+        // (local storage is cleared in context)
+        await api.post(`${API_URL}/logout`, {
+            refreshToken: localStorage.getItem('refreshToken'),
+        });
     }
 };
\ No newline at end of file
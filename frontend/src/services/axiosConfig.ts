@@ -31,15 +31,60 @@ api.interceptors.request.use(
     }
 );
 
+// Tokens are short-lived: on an auth error, get a new one with the refresh token and retry once.
+// Refresh tokens rotate on use, so concurrent failures share one refresh call instead of each
+// sending the same (soon revoked) refresh token.
+let refreshInFlight: Promise<string | null> | null = null;
+
+const refreshToken = (): Promise<string | null> => {
+    if (!refreshInFlight) {
+        refreshInFlight = requestNewToken().finally(() => {
+            refreshInFlight = null;
+        });
+    }
+    return refreshInFlight;
+};
+
+const requestNewToken = async (): Promise<string | null> => {
+    const storedRefreshToken = localStorage.getItem('refreshToken');
+    if (!storedRefreshToken) {
+        return null;
+    }
+
+    try {
+        // Plain axios, so this call doesn't go through the interceptors below
+        const response = await axios.post('/api/auth/refresh', { refreshToken: storedRefreshToken });
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+    } catch {
+        return null;
+    }
+};
+
 // Response interceptor for handling errors
 api.interceptors.response.use(
     (response) => response,
-    (error) => {
+    async (error) => {
+        const original = error.config;
+        const status = error.response?.status;
+
+        // Spring Security answers 403 to requests without a valid token
+        if ((status === 401 || status === 403) && original && !original._retry && !original.url?.startsWith('/auth/')) {
+            original._retry = true;
+            const token = await refreshToken();
+            if (token) {
+                original.headers.Authorization = `Bearer ${token}`;
+                return api(original);
+            }
+        }
+
         // Handle authentication errors
         if (error.response && error.response.status === 401) {
             // Token expired or invalid
             localStorage.removeItem('token');
             localStorage.removeItem('user');
+            localStorage.removeItem('refreshToken');
             window.location.href = '/login'; // Redirect to login page
         }
 
@@ -1,8 +1,14 @@
 import api from './axiosConfig';
-import { Message, MessageRequest, ChatUser } from '../types/chat';
+import { Message, MessageRequest, ChatUser, UnreadCounts } from '../types/chat';
 
 const API_URL = '/chat';
 
+// Messages per conversation page (the backend allows up to 200)
+export const CONVERSATION_PAGE_SIZE = 50;
+
+// Chat partners per page of the conversation list (the backend allows up to 200)
+export const CHAT_USERS_PAGE_SIZE = 50;
+
 export const chatService = {
     // Send a message to another user
     sendMessage: async (request: MessageRequest): Promise<Message> => {
@@ -10,9 +16,10 @@ export const chatService = {
         return response.data
     },
 
-    // Get conversation with another user
-    getConversation: async (userId: string): Promise<Message[]> => {
-        const response = await api.get(`${API_URL}/conversation/${userId}`);
+    // Get one page of the conversation with another user, oldest first.
+    // Without 'before' this is the latest page, pass the oldest loaded message id to get the page before it.
+    getConversation: async (userId: string, before?: string, limit = CONVERSATION_PAGE_SIZE): Promise<Message[]> => {
+        const response = await api.get(`${API_URL}/conversation/${userId}`, { params: { before, limit } });
         return response.data;
     },
 
@@ -22,15 +29,16 @@ export const chatService = {
         return response.data;
     },
 
-    // Get all unread messages
-    getUnreadMessages: async (): Promise<Message[]> => {
-        const response = await api.get(`${API_URL}/unread`);
+    // Get unread message counts per sender (counted on the backend, no message bodies)
+    getUnreadCounts: async (): Promise<UnreadCounts> => {
+        const response = await api.get(`${API_URL}/unread/counts`);
         return response.data;
     },
 
-    // Get users that current user has chatted with (user identified based on auth key)
-    getChatUsers: async (): Promise<ChatUser[]> => {
-        const response = await api.get(`${API_URL}/users`);
+    // Get one page of users that current user has chatted with, most recent conversation first
+    // (user identified based on auth key)
+    getChatUsers: async (page = 0, size = CHAT_USERS_PAGE_SIZE): Promise<ChatUser[]> => {
+        const response = await api.get(`${API_URL}/users`, { params: { page, size } });
         return response.data;
     },
 
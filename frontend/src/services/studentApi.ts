@@ -1,14 +1,20 @@
-import { Student, CreateStudentRequest, UpdateStudentRequest } from "../types/student";
+import { Student, StudentListPage, CreateStudentRequest, UpdateStudentRequest } from "../types/student";
 import api from './axiosConfig'; // Instead of regular axios, using the api with the jwt stuff
 
 
 const API_URL = '/students';
 
+// Students per page of the student list (the backend allows up to 200)
+export const STUDENT_PAGE_SIZE = 50;
+
 export const studentService = {
-    // Get all students
-    getAll: async (): Promise<Student[]> => {
-        const response = await api.get(API_URL);
-        return response.data;
+    // Get one page of students sorted by name, with the total count (X-Total-Count) for the pager
+    getPage: async (page = 0, size = STUDENT_PAGE_SIZE): Promise<StudentListPage> => {
+        const response = await api.get(API_URL, { params: { page, size, sort: 'name', includeTotal: true } });
+        return {
+            students: response.data,
+            total: Number(response.headers['x-total-count'] ?? response.data.length),
+        };
     },
 
     // Get student by ID
@@ -17,6 +23,13 @@ export const studentService = {
         return response.data;
     },
 
+    // Get several students by id with one request, in the order of the ids (null for missing ones)
+    getByIds: async (ids: string[]): Promise<(Student | null)[]> => {
+        const response = await api.post(`${API_URL}/batch-get`, ids);
+        return response.data.map((result: { found: boolean; student: Student }) =>
+            result.found ? result.student : null);
+    },
+
     // Create new student
     createNewStudent: async(student: CreateStudentRequest): Promise<Student> => {
         const response = await api.post(API_URL, student);
@@ -4,9 +4,9 @@ import { ChatUser } from '../types/chat';
 const API_URL = '/users'
 
 export const userService = {
-    // Simply retrieve all users
+    // Simply retrieve all users (just id and username, the chat list doesn't show emails)
     getAllChatUsers: async (): Promise<ChatUser[]> => {
-        const response = await api.get(`${API_URL}`);
+        const response = await api.get(`${API_URL}`, { params: { fields: 'username' } });
         return response.data;
     }
 };
\ No newline at end of file
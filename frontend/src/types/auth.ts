@@ -19,4 +19,5 @@ export interface AuthResponse {
     token: string;
     userId: string;
     username: string;
+    refreshToken: string;   // Used to get a new token when the (short-lived) token expires
 }
\ No newline at end of file
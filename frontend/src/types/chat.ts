@@ -17,5 +17,11 @@ export interface MessageRequest {
 export interface ChatUser {
     id: string;
     username: string;
-    email: string;
-}
\ No newline at end of file
+    email?: string;     // Left out when only usernames are requested
+}
+
+// Unread message counts, without loading the messages themselves
+export interface UnreadCounts {
+    total: number;
+    byUser: Record<string, number>;     // Sender id -> unread messages from them
+}
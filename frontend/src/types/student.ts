@@ -4,6 +4,13 @@ export interface Student {
     courses: string[];
     phoneNumber: string;
     dateOfBirth: string;    // ISO format
+    version?: number;       // Changes on every update, sent back to detect concurrent edits
+}
+
+// One page of the student list, with the number of students across all pages
+export interface StudentListPage {
+    students: Student[];
+    total: number;
 }
 
 export interface CreateStudentRequest {
@@ -18,6 +25,7 @@ export interface UpdateStudentRequest {
     courses: string[];    
     phoneNumber: string;
     dateOfBirth: string;
+    version?: number;       // Version the edit is based on (409 if the student changed since)
 }
 
 // Available course options for dropdown